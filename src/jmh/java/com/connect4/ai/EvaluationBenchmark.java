@@ -0,0 +1,62 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.ReferencePositions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaf evaluation: the full-board reference against the incremental
+ * evaluator the search uses, including the cost of one play/undo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+    
+    private GameBoard board;
+    private IncrementalEvaluator evaluator;
+    private int column;
+    
+    @Setup
+    public void setUp() {
+        board = ReferencePositions.named(position);
+        evaluator = new IncrementalEvaluator();
+        evaluator.load(board);
+        column = 0;
+        while (board.isColumnFull(column)) {
+            column++;
+        }
+    }
+    
+    @Benchmark
+    public int referenceEvaluation() {
+        return MinimaxAI.evaluateBoard(board, board.getCurrentPlayer());
+    }
+    
+    @Benchmark
+    public int incrementalEvaluation() {
+        int player = board.getCurrentPlayer();
+        evaluator.play(column, player);
+        int score = evaluator.evaluate(3 - player);
+        evaluator.undo(column, player);
+        return score;
+    }
+}
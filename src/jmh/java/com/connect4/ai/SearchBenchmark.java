@@ -0,0 +1,71 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.ReferencePositions;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete searches from the reference positions, each starting from an
+ * empty transposition table. In throughput mode the {@code nodes} secondary
+ * result is nodes per second.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+    
+    private GameBoard board;
+    private MinimaxAI hardAI;
+    
+    /**
+     * Nodes searched, reported next to the primary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        board = ReferencePositions.named(position);
+        hardAI = new MinimaxAI(3);
+    }
+    
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        hardAI.clearTranspositionTable();
+    }
+    
+    @Benchmark
+    public int hardSearch(Nodes counter) {
+        int move = hardAI.getBestMove(board);
+        counter.nodes += hardAI.getLastSearchCounters().getNodes();
+        return move;
+    }
+}
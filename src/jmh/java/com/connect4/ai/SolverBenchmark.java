@@ -0,0 +1,58 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.ReferencePositions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perfect-play solves from an empty table. The opening position is left
+ * out because solving it takes minutes.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    
+    @Param({"midgame", "endgame"})
+    public String position;
+    
+    private GameBoard board;
+    private TranspositionTable table;
+    private Solver solver;
+    
+    @Setup
+    public void setUp() {
+        board = ReferencePositions.named(position);
+        table = new TranspositionTable(16);
+        solver = new Solver(table);
+    }
+    
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+        solver.resetNodeCount();
+    }
+    
+    @Benchmark
+    public int solve(SearchBenchmark.Nodes counter) {
+        int move = solver.solve(board).bestMove();
+        counter.nodes += solver.getNodeCount();
+        return move;
+    }
+}
@@ -0,0 +1,73 @@
+package com.connect4.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board primitives the search calls at every node.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    
+    @Param({"opening", "midgame", "endgame"})
+    public String position;
+    
+    private GameBoard board;
+    private int column;
+    
+    @Setup
+    public void setUp() {
+        board = ReferencePositions.named(position);
+        column = 0;
+        while (board.isColumnFull(column)) {
+            column++;
+        }
+    }
+    
+    @Benchmark
+    public boolean dropPiece() {
+        // dropPiece keeps the turn, so hand it over before taking the piece back
+        boolean dropped = board.dropPiece(column);
+        board.switchPlayer();
+        board.unmakeMove(column);
+        return dropped;
+    }
+    
+    @Benchmark
+    public int makeUnmake() {
+        board.makeMove(column);
+        board.unmakeMove(column);
+        return board.getCurrentPlayer();
+    }
+    
+    @Benchmark
+    public boolean checkWin() {
+        return board.checkWin(1) | board.checkWin(2);
+    }
+    
+    @Benchmark
+    public boolean isLastMoveWin() {
+        return board.isLastMoveWin();
+    }
+    
+    @Benchmark
+    public long positionKey() {
+        return board.getPositionKey();
+    }
+}
@@ -0,0 +1,31 @@
+package com.connect4.model;
+
+/**
+ * Fixed positions shared by the benchmarks, written as the columns played
+ * from the empty board. Changing them invalidates earlier baselines.
+ */
+public final class ReferencePositions {
+    public static final String OPENING = "3324";
+    public static final String MIDGAME = "441032244210";
+    public static final String ENDGAME = "366033452145212233322411";
+    
+    private ReferencePositions() {
+    }
+    
+    public static GameBoard named(String name) {
+        return switch (name) {
+            case "opening" -> play(OPENING);
+            case "midgame" -> play(MIDGAME);
+            case "endgame" -> play(ENDGAME);
+            default -> throw new IllegalArgumentException("Unknown reference position: " + name);
+        };
+    }
+    
+    public static GameBoard play(String moves) {
+        GameBoard board = new GameBoard();
+        for (char c : moves.toCharArray()) {
+            board.makeMove(c - '0');
+        }
+        return board;
+    }
+}
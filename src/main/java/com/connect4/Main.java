@@ -1,5 +1,6 @@
 package com.connect4;
 
+import com.connect4.controller.GameController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -8,9 +9,13 @@ import javafx.stage.Stage;
 
 public class Main extends Application {
     
+    private GameController controller;
+    
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("/fxml/GameView.fxml"));
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/GameView.fxml"));
+        Parent root = loader.load();
+        controller = loader.getController();
         
         Scene scene = new Scene(root);
         scene.getStylesheets().add(getClass().getResource("/css/styles.css").toExternalForm());
@@ -21,6 +26,13 @@ public class Main extends Application {
         primaryStage.show();
     }
     
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,68 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A way of choosing moves, so the game can run any engine without knowing
+ * how it searches.
+ */
+public interface AIEngine {
+    
+    /**
+     * Chooses a column for the side to move. The board is not modified.
+     */
+    default int getBestMove(GameBoard board) {
+        return getBestMove(board, new AtomicBoolean());
+    }
+    
+    /**
+     * Like {@link #getBestMove(GameBoard)}, but returns as soon as possible
+     * once {@code stop} is set. The flag belongs to this search alone, so
+     * setting it before the search has begun still stops it.
+     */
+    int getBestMove(GameBoard board, AtomicBoolean stop);
+    
+    /**
+     * What the most recent {@link #getBestMove(GameBoard)} found and how much
+     * work it took, or null before the first move.
+     */
+    SearchResult getLastSearchResult();
+    
+    /**
+     * Thinks on the opponent's time from {@code board}, where the opponent is
+     * to move, so that the next {@link #getBestMove(GameBoard)} is faster.
+     * Blocks until done or until {@link #stopSearch()} is called.
+     */
+    default void ponder(GameBoard board) {
+        ponder(board, new AtomicBoolean());
+    }
+    
+    /**
+     * Like {@link #ponder(GameBoard)}, but also returns once {@code stop} is
+     * set, even if it was set before pondering began.
+     */
+    default void ponder(GameBoard board, AtomicBoolean stop) {
+    }
+    
+    /**
+     * Asks a search running on another thread to return as soon as possible.
+     * A search that has not begun yet is not affected, so a caller that must
+     * not lose a stop passes its own flag instead.
+     */
+    void stopSearch();
+    
+    /**
+     * Forgets what earlier games taught the engine, so that games do not
+     * influence each other.
+     */
+    default void newGame() {
+    }
+    
+    /**
+     * Releases any threads the engine owns.
+     */
+    default void shutdown() {
+    }
+}
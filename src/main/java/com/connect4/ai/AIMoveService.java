@@ -0,0 +1,136 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs AI searches on a dedicated background thread so the caller's thread
+ * (the JavaFX application thread in the game) never blocks on a search.
+ *
+ * Results are completed through the delivery executor, e.g.
+ * {@code Platform::runLater}, so callbacks attached to the returned future run
+ * there. Moves that are found faster than the minimum think time are held
+ * back until it has passed, which keeps the AI from answering instantly
+ * without adding a delay to slow searches. Only one request is active at a
+ * time; starting a new one or calling {@link #cancel()} abandons the previous one.
+ *
+ * Between moves the same thread can {@link #ponder ponder} the opponent's
+ * replies. A move request stops pondering first and then profits from the
+ * transposition table it filled.
+ */
+public class AIMoveService {
+    private final ExecutorService searchExecutor;
+    private final Executor deliveryExecutor;
+    private final Duration minimumThinkTime;
+    private CompletableFuture<?> pending;
+    private AtomicBoolean pendingStop;
+    private boolean pondering;
+    
+    public AIMoveService(Executor deliveryExecutor, Duration minimumThinkTime) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.minimumThinkTime = minimumThinkTime;
+        this.searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Starts searching a snapshot of {@code board}, so the caller may keep
+     * using the board. The future completes with the chosen column, or is
+     * cancelled if the request is abandoned first.
+     */
+    public synchronized CompletableFuture<Integer> requestMove(AIEngine ai, GameBoard board) {
+        cancel();
+        GameBoard snapshot = new GameBoard(board);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        // Each request has its own flag, so a cancel landing before its search begins still stops it
+        AtomicBoolean stop = new AtomicBoolean();
+        pending = result;
+        pendingStop = stop;
+        long start = System.nanoTime();
+        
+        searchExecutor.execute(() -> {
+            if (result.isDone()) return;
+            try {
+                int move = ai.getBestMove(snapshot, stop);
+                long remaining = minimumThinkTime.toNanos() - (System.nanoTime() - start);
+                Executor delivery = remaining > 0
+                        ? CompletableFuture.delayedExecutor(remaining, TimeUnit.NANOSECONDS, deliveryExecutor)
+                        : deliveryExecutor;
+                delivery.execute(() -> result.complete(move));
+            } catch (Throwable e) {
+                // Errors too, such as a stack overflow, or the caller would wait forever
+                deliveryExecutor.execute(() -> result.completeExceptionally(e));
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Ponders the opponent's replies from a snapshot of {@code board} until
+     * the next request or {@link #cancel()}. The future completes once every
+     * reply has been searched to the AI's depth.
+     */
+    public synchronized CompletableFuture<Void> ponder(AIEngine ai, GameBoard board) {
+        cancel();
+        GameBoard snapshot = new GameBoard(board);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        pending = result;
+        pendingStop = stop;
+        pondering = true;
+        
+        searchExecutor.execute(() -> {
+            if (result.isDone()) return;
+            try {
+                ai.ponder(snapshot, stop);
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Abandons the active request, stopping its search if it is running. Its
+     * future is cancelled and will never deliver a move.
+     */
+    public synchronized void cancel() {
+        if (pending != null && pending.cancel(false)) {
+            pendingStop.set(true);
+        }
+        pending = null;
+        pendingStop = null;
+        pondering = false;
+    }
+    
+    /**
+     * Whether a move request is still being searched; pondering does not count.
+     */
+    public synchronized boolean isThinking() {
+        return pending != null && !pending.isDone() && !pondering;
+    }
+    
+    /**
+     * Shuts {@code ai} down once any search it is still running has returned,
+     * e.g. after switching to another engine.
+     */
+    public void retire(AIEngine ai) {
+        searchExecutor.execute(ai::shutdown);
+    }
+    
+    public void shutdown() {
+        cancel();
+        searchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.connect4.ai;
+
+import java.time.Duration;
+
+/**
+ * Everything needed to build the engine behind one difficulty.
+ *
+ * @param level          difficulty number stored in saved games
+ * @param depth          search depth for the alpha-beta engines; with a time
+ *                       budget it is the deepest iteration
+ * @param timeBudget     thinking time per move, or null to search to {@code depth}
+ * @param tableMegabytes transposition table size, or the node pool size for MCTS
+ * @param openingBook    whether to play from the opening book when one is installed
+ * @param weights        heuristic evaluation for the alpha-beta engines
+ */
+public record EngineConfig(String name, int level, Kind kind, int depth, Duration timeBudget,
+                           int threads, int tableMegabytes, boolean openingBook, EvaluationWeights weights) {
+    
+    public enum Kind {
+        MINIMAX,
+        SOLVER,
+        MCTS
+    }
+    
+    public EngineConfig {
+        if (name == null || kind == null || weights == null) {
+            throw new IllegalArgumentException("Engine config needs a name, a kind and evaluation weights");
+        }
+        if (threads < 1 || tableMegabytes < 1) {
+            throw new IllegalArgumentException("Threads and table size must be positive in " + name);
+        }
+        if (kind == Kind.MCTS && timeBudget == null) {
+            throw new IllegalArgumentException("MCTS needs a time budget in " + name);
+        }
+    }
+    
+    /**
+     * A configuration with the {@link EvaluationWeights#DEFAULT default} evaluation.
+     */
+    public EngineConfig(String name, int level, Kind kind, int depth, Duration timeBudget,
+                        int threads, int tableMegabytes, boolean openingBook) {
+        this(name, level, kind, depth, timeBudget, threads, tableMegabytes, openingBook, EvaluationWeights.DEFAULT);
+    }
+}
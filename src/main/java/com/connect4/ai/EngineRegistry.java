@@ -0,0 +1,120 @@
+package com.connect4.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps difficulty names to engine configurations, so the controllers only
+ * deal in names and the engine behind a name can change freely.
+ */
+public class EngineRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(EngineRegistry.class);
+    public static final Path DEFAULT_OPENING_BOOK = Paths.get("opening_book.bin");
+    
+    private final Map<String, EngineConfig> configs = new LinkedHashMap<>();
+    private final Path openingBookPath;
+    private OpeningBook openingBook;
+    private boolean openingBookLoaded;
+    
+    /**
+     * @param openingBookPath book for the configurations that use one; a missing file means no book
+     */
+    public EngineRegistry(Path openingBookPath) {
+        this.openingBookPath = openingBookPath;
+    }
+    
+    /**
+     * The difficulties the game offers, weakest first.
+     */
+    public static EngineRegistry withDefaults(Path openingBookPath) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        EngineRegistry registry = new EngineRegistry(openingBookPath);
+        registry.register(new EngineConfig("Easy", 1, EngineConfig.Kind.MINIMAX, 2, null, 1, 16, false));
+        registry.register(new EngineConfig("Medium", 2, EngineConfig.Kind.MINIMAX, 4, null, 1, 16, false));
+        registry.register(new EngineConfig("Hard", 3, EngineConfig.Kind.MINIMAX, 6, null, 1, 16, true));
+        registry.register(new EngineConfig("Expert", 4, EngineConfig.Kind.MINIMAX, 20, Duration.ofSeconds(2),
+                                           cores, 64, true));
+        registry.register(new EngineConfig("Solver", MinimaxAI.SOLVER, EngineConfig.Kind.SOLVER, 8,
+                                           Duration.ofSeconds(2), cores, 64, true));
+        registry.register(new EngineConfig("Monte Carlo", 6, EngineConfig.Kind.MCTS, 0, Duration.ofSeconds(2),
+                                           cores, 64, false));
+        return registry;
+    }
+    
+    /**
+     * Adds a configuration, replacing any with the same name.
+     */
+    public void register(EngineConfig config) {
+        configs.put(config.name(), config);
+    }
+    
+    public List<String> getNames() {
+        return new ArrayList<>(configs.keySet());
+    }
+    
+    public EngineConfig getConfig(String name) {
+        EngineConfig config = configs.get(name);
+        if (config == null) {
+            throw new IllegalArgumentException("Unknown difficulty: " + name);
+        }
+        return config;
+    }
+    
+    /**
+     * Name of the configuration saved as {@code level}, or null if there is none.
+     */
+    public String getName(int level) {
+        for (EngineConfig config : configs.values()) {
+            if (config.level() == level) return config.name();
+        }
+        return null;
+    }
+    
+    /**
+     * Builds a new engine for {@code name}. The caller owns it and should
+     * {@link AIEngine#shutdown() shut it down} when replacing it.
+     */
+    public AIEngine create(String name) {
+        EngineConfig config = getConfig(name);
+        if (config.kind() == EngineConfig.Kind.MCTS) {
+            int nodes = (int) Math.min(Integer.MAX_VALUE - 8,
+                                       (long) config.tableMegabytes() * 1024 * 1024 / MctsAI.BYTES_PER_NODE);
+            return new MctsAI(config.timeBudget(), config.threads(), nodes);
+        }
+        int difficulty = config.kind() == EngineConfig.Kind.SOLVER ? MinimaxAI.SOLVER : config.level();
+        MinimaxAI ai = new MinimaxAI(difficulty, config.depth(), config.tableMegabytes(), config.threads(),
+                                     MinimaxAI.ParallelMode.YOUNG_BROTHERS_WAIT);
+        ai.setMoveTime(config.timeBudget());
+        ai.setEvaluationWeights(config.weights());
+        if (config.openingBook()) {
+            ai.setOpeningBook(openingBook());
+        }
+        return ai;
+    }
+    
+    private synchronized OpeningBook openingBook() {
+        if (!openingBookLoaded) {
+            openingBookLoaded = true;
+            if (openingBookPath != null && Files.isRegularFile(openingBookPath)) {
+                try {
+                    openingBook = OpeningBook.open(openingBookPath);
+                } catch (IOException e) {
+                    // An unreadable book only costs strength, so the engines play without it
+                    logger.warn("Failed to read opening book {}, playing without it", openingBookPath, e);
+                    openingBook = null;
+                }
+            }
+        }
+        return openingBook;
+    }
+}
@@ -0,0 +1,32 @@
+package com.connect4.ai;
+
+/**
+ * Points the heuristic evaluation gives a player, counted over every window
+ * of N cells in a line. A window holding pieces of both players scores
+ * nothing. Weights are at most {@link #MAX_WEIGHT}, which keeps heuristic
+ * scores on the standard board below the score of a won position.
+ *
+ * @param center points per piece in the center column
+ * @param three  points per window with all but one cell filled by the player
+ *               and the last one empty
+ * @param two    points per window with all but two cells filled by the player
+ *               and the other two empty
+ */
+public record EvaluationWeights(int center, int three, int two) {
+    
+    public static final int MAX_WEIGHT = 10;
+    
+    /**
+     * The weights the engines have always used.
+     */
+    public static final EvaluationWeights DEFAULT = new EvaluationWeights(3, 5, 2);
+    
+    public EvaluationWeights {
+        for (int weight : new int[] {center, three, two}) {
+            if (weight < 0 || weight > MAX_WEIGHT) {
+                throw new IllegalArgumentException("Evaluation weights must be between 0 and " + MAX_WEIGHT
+                                                   + ", got " + weight);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the heuristic of {@link MinimaxAI#evaluateBoard} up to date as
+ * pieces are played and taken back, so a leaf costs O(1) instead of a scan
+ * of the whole board.
+ *
+ * Every window of N cells in a row keeps a piece count per player (69
+ * four-cell windows on the standard board), and a running total holds the
+ * sum of all window scores from player 1's point of view. Playing or undoing
+ * a piece only revisits the windows through that cell (at most 4N). Callers
+ * must mirror every move made on the board.
+ */
+class IncrementalEvaluator {
+    private static final int WIN_SCORE = SearchWorker.WIN_SCORE;
+    private static final Shape STANDARD = new Shape(GameBoard.ROWS, GameBoard.COLS, GameBoard.CONNECT);
+    static final int WINDOW_COUNT = STANDARD.windowCount;
+    
+    private final EvaluationWeights weights;
+    private Shape shape = STANDARD;
+    private int[][] counts = new int[3][WINDOW_COUNT];
+    private final int[] wins = new int[3];
+    private int[] heights = new int[GameBoard.COLS];
+    private int score;
+    
+    IncrementalEvaluator() {
+        this(EvaluationWeights.DEFAULT);
+    }
+    
+    IncrementalEvaluator(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+    
+    /**
+     * Window tables for one board size and line length. Cells are numbered
+     * col * rows + height, height 0 being the bottom.
+     */
+    private static final class Shape {
+        final int rows;
+        final int cols;
+        final int connect;
+        final int[][] cellWindows;
+        final int windowCount;
+        
+        Shape(int rows, int cols, int connect) {
+            this.rows = rows;
+            this.cols = cols;
+            this.connect = connect;
+            this.cellWindows = buildCellWindows(rows, cols, connect);
+            int count = 0;
+            for (int[] windows : cellWindows) {
+                count += windows.length;
+            }
+            this.windowCount = count / connect;
+        }
+        
+        boolean matches(GameBoard board) {
+            return board.getRows() == rows && board.getCols() == cols && board.getConnect() == connect;
+        }
+    }
+    
+    /**
+     * Resets to the pieces currently on {@code board}, adapting to its size.
+     */
+    void load(GameBoard board) {
+        if (!shape.matches(board)) {
+            shape = board.isStandardSize() ? STANDARD
+                    : new Shape(board.getRows(), board.getCols(), board.getConnect());
+            counts = new int[3][shape.windowCount];
+            heights = new int[shape.cols];
+        }
+        for (int[] playerCounts : counts) {
+            Arrays.fill(playerCounts, 0);
+        }
+        Arrays.fill(wins, 0);
+        score = 0;
+        for (int col = 0; col < shape.cols; col++) {
+            for (int h = 0; h < shape.rows; h++) {
+                int piece = board.getPiece(shape.rows - 1 - h, col);
+                if (piece != 0) add(col, h, piece);
+            }
+            heights[col] = board.getHeight(col);
+        }
+    }
+    
+    void play(int col, int player) {
+        add(col, heights[col]++, player);
+    }
+    
+    void undo(int col, int player) {
+        remove(col, --heights[col], player);
+    }
+    
+    private void add(int col, int h, int player) {
+        int[] own = counts[player];
+        for (int window : shape.cellWindows[col * shape.rows + h]) {
+            score -= windowScore(window);
+            if (++own[window] == shape.connect) wins[player]++;
+            score += windowScore(window);
+        }
+        if (col == shape.cols / 2) {
+            score += player == 1 ? weights.center() : -weights.center();
+        }
+    }
+    
+    private void remove(int col, int h, int player) {
+        int[] own = counts[player];
+        for (int window : shape.cellWindows[col * shape.rows + h]) {
+            score -= windowScore(window);
+            if (own[window]-- == shape.connect) wins[player]--;
+            score += windowScore(window);
+        }
+        if (col == shape.cols / 2) {
+            score -= player == 1 ? weights.center() : -weights.center();
+        }
+    }
+    
+    /**
+     * Same value as {@link MinimaxAI#evaluateBoard} for the current pieces.
+     */
+    int evaluate(int player) {
+        int opponent = 3 - player;
+        if (wins[player] > 0) return WIN_SCORE;
+        if (wins[opponent] > 0) return -WIN_SCORE;
+        return player == 1 ? score : -score;
+    }
+    
+    private int windowScore(int window) {
+        int p1 = counts[1][window];
+        int p2 = counts[2][window];
+        return lineScore(p1, p2, shape.connect) - lineScore(p2, p1, shape.connect);
+    }
+    
+    private int lineScore(int own, int other, int connect) {
+        if (own == connect) return 100;
+        if (other != 0 || own == 0) return 0;
+        if (own == connect - 1) return weights.three();
+        if (own == connect - 2) return weights.two();
+        return 0;
+    }
+    
+    private static int[][] buildCellWindows(int rows, int cols, int connect) {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}}; // (dCol, dHeight)
+        int[] perCell = new int[rows * cols];
+        int[][] cells = new int[rows * cols][4 * connect];
+        int window = 0;
+        for (int[] d : directions) {
+            for (int col = 0; col < cols; col++) {
+                for (int h = 0; h < rows; h++) {
+                    int endCol = col + (connect - 1) * d[0];
+                    int endH = h + (connect - 1) * d[1];
+                    if (endCol >= cols || endH < 0 || endH >= rows) continue;
+                    
+                    for (int i = 0; i < connect; i++) {
+                        int cell = (col + i * d[0]) * rows + h + i * d[1];
+                        cells[cell][perCell[cell]++] = window;
+                    }
+                    window++;
+                }
+            }
+        }
+        
+        int[][] result = new int[rows * cols][];
+        for (int cell = 0; cell < result.length; cell++) {
+            result[cell] = Arrays.copyOf(cells[cell], perCell[cell]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP: the calling thread searches the root as usual while helper
+ * threads run their own iterative deepening on copies of the same position,
+ * each with a different column order and half of them one ply deeper. The
+ * threads never talk to each other directly; they only share the lock-free
+ * {@link TranspositionTable}, so entries a helper stores cut off the main
+ * search when it reaches the same positions. The main thread's result is the
+ * answer and the helpers are stopped as soon as it returns.
+ */
+class LazySmpSearch implements RootSearch {
+    private final TranspositionTable transpositionTable;
+    private final SearchCounters counters;
+    private final ExecutorService helpers;
+    private final int threads;
+    private volatile MoveOrdering ordering = MoveOrdering.ALL;
+    private volatile EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    private boolean aborted;
+    private int lastRootScore;
+    
+    LazySmpSearch(TranspositionTable transpositionTable, SearchCounters counters, int threads) {
+        this.transpositionTable = transpositionTable;
+        this.counters = counters;
+        this.threads = threads;
+        AtomicInteger helperId = new AtomicInteger();
+        this.helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper-" + helperId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public int searchRoot(GameBoard board, int depth, long deadline, AtomicBoolean stop) {
+        AtomicBoolean helpersStop = new AtomicBoolean();
+        List<Future<?>> running = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            int helperDepth = depth + (i & 1);
+            // Rotating the static column order starts each helper in a different subtree
+            SearchWorker helper = new SearchWorker(transpositionTable, ordering, weights, counters, deadline,
+                                                   helpersStop, i);
+            GameBoard helperBoard = new GameBoard(board);
+            running.add(helpers.submit(() -> {
+                for (int d = 0; d <= helperDepth && !helper.isAborted(); d++) {
+                    helper.searchRoot(helperBoard, d);
+                }
+            }));
+        }
+        
+        SearchWorker main = new SearchWorker(transpositionTable, ordering, weights, counters, deadline, stop, 0);
+        int move = main.searchRoot(board, depth);
+        
+        helpersStop.set(true);
+        for (Future<?> helper : running) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Lazy SMP helper failed", e.getCause());
+            }
+        }
+        
+        aborted = main.isAborted();
+        lastRootScore = main.getLastRootScore();
+        return move;
+    }
+    
+    @Override
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+    
+    @Override
+    public void setEvaluationWeights(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+    
+    @Override
+    public boolean isAborted() {
+        return aborted;
+    }
+    
+    @Override
+    public int getLastRootScore() {
+        return lastRootScore;
+    }
+    
+    @Override
+    public int getParallelism() {
+        return threads;
+    }
+    
+    @Override
+    public void shutdown() {
+        helpers.shutdownNow();
+    }
+}
@@ -0,0 +1,595 @@
+package com.connect4.ai;
+
+import com.connect4.model.BitBoard;
+import com.connect4.model.GameBoard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo tree search with UCT selection, for positions where a
+ * depth-limited alpha-beta search cannot see far enough.
+ *
+ * The tree lives in parallel primitive arrays indexed by node, and the
+ * children of a node occupy a contiguous block, so growing the tree and
+ * running playouts allocate nothing. Playouts are random games that take an
+ * immediate win and block an immediate loss, played on the bare bitboard for
+ * the standard board and on a scratch {@link GameBoard} for other sizes.
+ *
+ * Several threads can grow the same tree. A thread counts a visit on every
+ * node it descends through before its playout finishes (a virtual loss),
+ * which steers the other threads into different branches until the result
+ * is added on the way back up.
+ *
+ * The subtree of the position that is actually reached is kept for the next
+ * move, including the work done by {@link AIEngine#ponder(GameBoard)}, as long
+ * as no more than half the pool is in use.
+ */
+public class MctsAI implements AIEngine {
+    private static final int HEIGHT = BitBoard.ROWS;
+    private static final int H1 = BitBoard.HEIGHT;
+    private static final int CELLS = BitBoard.COLS * HEIGHT;
+    // Moves are stored in a byte and legal columns passed around as a long
+    private static final int MAX_COLUMNS = 63;
+    /**
+     * Pool memory per node, for sizing the pool from a memory budget.
+     */
+    public static final int BYTES_PER_NODE = 14;
+    
+    private static final int DEFAULT_NODE_CAPACITY = 1 << 21;
+    private static final int MAX_VARIATION_LENGTH = 8;
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int EXPANSION_VISITS = 4;
+    private static final int TIME_CHECK_MASK = 63;
+    
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    
+    private final Duration moveTime;
+    private final int capacity;
+    private final int threads;
+    
+    // Node pool; rewards are counted in half points: 2 for a win, 1 for a draw
+    private final int[] firstChild;
+    private final byte[] childCount;
+    private final byte[] move;
+    private final int[] visits;
+    private final int[] rewards;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    
+    private int root;
+    private GameBoard rootBoard;
+    private boolean standard;
+    private int[] columnOrder = MoveOrdering.centerOut(GameBoard.COLS);
+    private long rootPosition;
+    private long rootMask;
+    private volatile boolean poolFull;
+    // Nodes the running search may use: the whole pool, or half of it when pondering
+    private int nodeLimit;
+    
+    private final Playouts[] workers;
+    private final ExecutorService helpers;
+    // The running search's own flag, so stopSearch() never clears or outlives it
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    private long lastPlayouts;
+    private volatile SearchResult lastSearchResult;
+    
+    public MctsAI(Duration moveTime) {
+        this(moveTime, 1, DEFAULT_NODE_CAPACITY);
+    }
+    
+    /**
+     * @param nodeCapacity size of the node pool; the search stops early when it is full
+     */
+    public MctsAI(Duration moveTime, int threads, int nodeCapacity) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, got " + threads);
+        }
+        if (nodeCapacity < 1 + GameBoard.COLS) {
+            throw new IllegalArgumentException("Node capacity too small: " + nodeCapacity);
+        }
+        this.moveTime = moveTime;
+        this.threads = threads;
+        this.capacity = nodeCapacity;
+        this.firstChild = new int[nodeCapacity];
+        this.childCount = new byte[nodeCapacity];
+        this.move = new byte[nodeCapacity];
+        this.visits = new int[nodeCapacity];
+        this.rewards = new int[nodeCapacity];
+        this.workers = new Playouts[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Playouts(0x9E3779B97F4A7C15L * (i + 1));
+        }
+        if (threads == 1) {
+            this.helpers = null;
+        } else {
+            AtomicInteger helperId = new AtomicInteger();
+            this.helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "mcts-helper-" + helperId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        resetTree();
+    }
+    
+    @Override
+    public int getBestMove(GameBoard board, AtomicBoolean stop) {
+        long start = System.nanoTime();
+        stopSignal = stop;
+        moveToRoot(board);
+        search(start + moveTime.toNanos(), capacity);
+        
+        int best = mostVisitedChild(root);
+        if (best < 0) {
+            return firstLegalMove(board);
+        }
+        List<Integer> line = new ArrayList<>();
+        for (int node = best; node >= 0 && line.size() < MAX_VARIATION_LENGTH; node = mostVisitedChild(node)) {
+            line.add((int) move[node]);
+        }
+        int winPercent = visits[best] > 0 ? rewards[best] * 50 / visits[best] : 50;
+        lastSearchResult = new SearchResult(move[best], winPercent, line.size(), lastPlayouts,
+                                            System.nanoTime() - start, 0, 0, 0, line);
+        return move[best];
+    }
+    
+    private int mostVisitedChild(int node) {
+        int best = -1;
+        int bestVisits = 0;
+        int first = firstChild[node];
+        for (int i = 0; i < childCount[node] && first >= 0; i++) {
+            if (visits[first + i] > bestVisits) {
+                bestVisits = visits[first + i];
+                best = first + i;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Result of the most recent move. The score is the chosen move's
+     * expected result in percent (100 for a certain win), nodes counts the
+     * playouts of this move only, and the variation follows the most visited
+     * replies.
+     */
+    @Override
+    public SearchResult getLastSearchResult() {
+        return lastSearchResult;
+    }
+    
+    /**
+     * Grows the tree of {@code board} until stopped or half the pool is used;
+     * the part below the opponent's actual reply is reused by the next move,
+     * which has the other half to grow it.
+     */
+    @Override
+    public void ponder(GameBoard board, AtomicBoolean stop) {
+        stopSignal = stop;
+        moveToRoot(board);
+        search(0, capacity / 2);
+    }
+    
+    @Override
+    public void stopSearch() {
+        stopSignal.set(true);
+    }
+    
+    /**
+     * Playouts run by the most recent search or ponder.
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+    
+    /**
+     * Visits of the root after the most recent search, including reused ones.
+     */
+    public int getRootVisits() {
+        return visits[root];
+    }
+    
+    public int getThreads() {
+        return threads;
+    }
+    
+    /**
+     * Forgets the tree, e.g. between games.
+     */
+    public void clearTree() {
+        rootBoard = null;
+        resetTree();
+    }
+    
+    @Override
+    public void newGame() {
+        clearTree();
+    }
+    
+    @Override
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Makes the node for {@code board} the root, reusing it if it is the
+     * current root or one or two moves below it, and starting a new tree otherwise.
+     */
+    private void moveToRoot(GameBoard board) {
+        if (board.getCols() > MAX_COLUMNS) {
+            throw new IllegalArgumentException("MCTS supports at most " + MAX_COLUMNS + " columns");
+        }
+        int node = -1;
+        // Everything outside the reused subtree is garbage, so start afresh once half the pool is spent
+        if (rootBoard != null && sameShape(rootBoard, board) && nodeCount.get() <= capacity / 2) {
+            node = findDescendant(root, new GameBoard(rootBoard), board.getPositionKey(), board.getMoveCount(), 2);
+        }
+        if (node < 0) {
+            resetTree();
+        } else {
+            root = node;
+            poolFull = false;
+        }
+        
+        rootBoard = new GameBoard(board);
+        standard = board.isStandardSize();
+        if (standard) {
+            BitBoard bits = board.getBitBoard();
+            rootMask = bits.getOccupiedMask();
+            rootPosition = bits.getMask(board.getCurrentPlayer());
+        }
+        if (columnOrder.length != board.getCols()) {
+            columnOrder = MoveOrdering.centerOut(board.getCols());
+        }
+        for (Playouts worker : workers) {
+            worker.prepare(rootBoard);
+        }
+    }
+    
+    private static boolean sameShape(GameBoard a, GameBoard b) {
+        return a.getRows() == b.getRows() && a.getCols() == b.getCols() && a.getConnect() == b.getConnect();
+    }
+    
+    private int findDescendant(int node, GameBoard position, long key, int moveCount, int plies) {
+        if (position.getMoveCount() == moveCount && position.getPositionKey() == key) {
+            return node;
+        }
+        int first = (int) INTS.getAcquire(firstChild, node);
+        if (plies == 0 || first < 0 || position.getMoveCount() >= moveCount) {
+            return -1;
+        }
+        for (int i = 0; i < childCount[node]; i++) {
+            int child = first + i;
+            position.makeMove(move[child]);
+            int found = findDescendant(child, position, key, moveCount, plies - 1);
+            position.unmakeMove(move[child]);
+            if (found >= 0) return found;
+        }
+        return -1;
+    }
+    
+    private void resetTree() {
+        nodeCount.set(1);
+        root = 0;
+        initNode(0, -1);
+        poolFull = false;
+    }
+    
+    private void initNode(int node, int col) {
+        move[node] = (byte) col;
+        childCount[node] = 0;
+        visits[node] = 0;
+        rewards[node] = 0;
+        firstChild[node] = UNEXPANDED;
+    }
+    
+    private void search(long deadline, int limit) {
+        nodeLimit = limit;
+        for (Playouts worker : workers) {
+            worker.playouts = 0;
+        }
+        List<Future<?>> running = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Playouts worker = workers[i];
+            running.add(helpers.submit(() -> worker.run(deadline)));
+        }
+        workers[0].run(deadline);
+        
+        for (Future<?> helper : running) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MCTS helper failed", e.getCause());
+            }
+        }
+        // A failed expansion still advanced the count, but every node in use lies below the limit
+        if (nodeCount.get() > limit) {
+            nodeCount.set(limit);
+        }
+        lastPlayouts = 0;
+        for (Playouts worker : workers) {
+            lastPlayouts += worker.playouts;
+        }
+    }
+    
+    /**
+     * Gives {@code node} a child per playable column, or returns false if
+     * another thread got there first or the pool has no room.
+     */
+    private boolean expand(int node, long columns) {
+        if (!INTS.compareAndSet(firstChild, node, UNEXPANDED, EXPANDING)) {
+            return false;
+        }
+        int count = Long.bitCount(columns);
+        int first = nodeCount.getAndAdd(count);
+        if (first + count > nodeLimit) {
+            poolFull = true;
+            INTS.setRelease(firstChild, node, UNEXPANDED);
+            return false;
+        }
+        int next = first;
+        for (int col : columnOrder) {
+            if ((columns & (1L << col)) != 0) {
+                initNode(next++, col);
+            }
+        }
+        childCount[node] = (byte) count;
+        INTS.setRelease(firstChild, node, first);
+        return true;
+    }
+    
+    private int selectChild(int node) {
+        int first = (int) INTS.getAcquire(firstChild, node);
+        double logVisits = Math.log(Math.max(1, visits[node]));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < childCount[node]; i++) {
+            int child = first + i;
+            int n = visits[child];
+            if (n == 0) {
+                return child;
+            }
+            double value = rewards[child] / (2.0 * n) + EXPLORATION * Math.sqrt(logVisits / n);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+    
+    private static long playBit(long mask, int col) {
+        return (mask + bottomMaskCol(col)) & columnMask(col);
+    }
+    
+    private static long bottomMaskCol(int col) {
+        return 1L << (col * H1);
+    }
+    
+    private static long columnMask(int col) {
+        return ((1L << HEIGHT) - 1) << (col * H1);
+    }
+    
+    /**
+     * Playable columns of a standard bitboard position, one bit per column.
+     */
+    private static long legalColumns(long mask) {
+        long possible = Solver.possible(mask);
+        long columns = 0;
+        for (int col = 0; col < BitBoard.COLS; col++) {
+            if ((possible & columnMask(col)) != 0) {
+                columns |= 1L << col;
+            }
+        }
+        return columns;
+    }
+    
+    private static long legalColumns(GameBoard board) {
+        long columns = 0;
+        for (int col = 0; col < board.getCols(); col++) {
+            if (!board.isColumnFull(col)) {
+                columns |= 1L << col;
+            }
+        }
+        return columns;
+    }
+    
+    private static int firstLegalMove(GameBoard board) {
+        for (int col : MoveOrdering.centerOut(board.getCols())) {
+            if (!board.isColumnFull(col)) return col;
+        }
+        return 0;
+    }
+    
+    /**
+     * One search thread's scratch state, reused across searches.
+     */
+    private final class Playouts {
+        private int[] path = new int[CELLS + 1];
+        private GameBoard scratch;
+        private long random;
+        private long playouts;
+        
+        Playouts(long seed) {
+            this.random = seed;
+        }
+        
+        void prepare(GameBoard rootBoard) {
+            int cells = rootBoard.getRows() * rootBoard.getCols();
+            if (path.length != cells + 1) {
+                path = new int[cells + 1];
+            }
+            if (rootBoard.isStandardSize()) {
+                scratch = null;
+            } else if (scratch == null || !sameShape(scratch, rootBoard)) {
+                scratch = new GameBoard(rootBoard);
+            }
+        }
+        
+        void run(long deadline) {
+            AtomicBoolean stop = stopSignal;
+            while (!stop.get() && !poolFull) {
+                if (standard) {
+                    playOnce();
+                } else {
+                    playOnceOnBoard();
+                }
+                if ((++playouts & TIME_CHECK_MASK) == 0 && deadline != 0 && System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+        }
+        
+        /**
+         * Selects down to a leaf, expands it, finishes the game at random and
+         * credits the result to every node on the path.
+         */
+        private void playOnce() {
+            long position = rootPosition;
+            long mask = rootMask;
+            int node = root;
+            int depth = 0;
+            path[depth++] = node;
+            INTS.getAndAdd(visits, node, 1);
+            
+            // Reward for the player who made the move into the current node
+            int reward = -1;
+            while (reward < 0) {
+                if ((int) INTS.getAcquire(firstChild, node) < 0
+                        && (visits[node] < EXPANSION_VISITS || !expand(node, legalColumns(mask)))) {
+                    reward = 2 - rollout(position, mask);
+                    break;
+                }
+                int child = selectChild(node);
+                INTS.getAndAdd(visits, child, 1);
+                path[depth++] = child;
+                long bit = playBit(mask, move[child]);
+                boolean wins = (Solver.winningPosition(position, mask) & bit) != 0;
+                position ^= mask;
+                mask |= bit;
+                node = child;
+                if (wins) {
+                    reward = 2;
+                } else if (Long.bitCount(mask) == CELLS) {
+                    reward = 1;
+                }
+            }
+            
+            backUp(depth, reward);
+        }
+        
+        /**
+         * {@link #playOnce()} for boards without a bitboard fast path.
+         */
+        private void playOnceOnBoard() {
+            GameBoard board = scratch;
+            board.copyFrom(rootBoard);
+            int node = root;
+            int depth = 0;
+            path[depth++] = node;
+            INTS.getAndAdd(visits, node, 1);
+            
+            int reward = -1;
+            while (reward < 0) {
+                if ((int) INTS.getAcquire(firstChild, node) < 0
+                        && (visits[node] < EXPANSION_VISITS || !expand(node, legalColumns(board)))) {
+                    reward = 2 - rollout(board);
+                    break;
+                }
+                int child = selectChild(node);
+                INTS.getAndAdd(visits, child, 1);
+                path[depth++] = child;
+                board.makeMove(move[child]);
+                node = child;
+                if (board.isLastMoveWin()) {
+                    reward = 2;
+                } else if (board.isBoardFull()) {
+                    reward = 1;
+                }
+            }
+            backUp(depth, reward);
+        }
+        
+        private void backUp(int depth, int reward) {
+            for (int i = depth - 1; i >= 0; i--) {
+                INTS.getAndAdd(rewards, path[i], reward);
+                reward = 2 - reward;
+            }
+        }
+        
+        /**
+         * Plays random moves from the position until the game ends, and
+         * returns the result for the side to move in half points.
+         */
+        private int rollout(long position, long mask) {
+            int sign = 0;
+            while (Long.bitCount(mask) < CELLS) {
+                long possible = Solver.possible(mask);
+                if ((Solver.winningPosition(position, mask) & possible) != 0) {
+                    return sign == 0 ? 2 : 0;
+                }
+                long forced = Solver.winningPosition(position ^ mask, mask) & possible;
+                long bit = forced != 0 ? Long.lowestOneBit(forced) : randomBit(possible);
+                position ^= mask;
+                mask |= bit;
+                sign ^= 1;
+            }
+            return 1;
+        }
+        
+        private int rollout(GameBoard board) {
+            int sign = 0;
+            while (!board.isBoardFull()) {
+                long columns = legalColumns(board);
+                if (winningColumn(board, columns) >= 0) {
+                    return sign == 0 ? 2 : 0;
+                }
+                // Look at the opponent's threats by handing them the move
+                board.switchPlayer();
+                int forced = winningColumn(board, columns);
+                board.switchPlayer();
+                int col = forced >= 0 ? forced : Long.numberOfTrailingZeros(randomBit(columns));
+                board.makeMove(col);
+                sign ^= 1;
+            }
+            return 1;
+        }
+        
+        private int winningColumn(GameBoard board, long columns) {
+            for (long rest = columns; rest != 0; rest &= rest - 1) {
+                int col = Long.numberOfTrailingZeros(rest);
+                board.makeMove(col);
+                boolean wins = board.isLastMoveWin();
+                board.unmakeMove(col);
+                if (wins) return col;
+            }
+            return -1;
+        }
+        
+        private long randomBit(long moves) {
+            // xorshift64
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            int skip = (int) ((random >>> 33) % Long.bitCount(moves));
+            for (int i = 0; i < skip; i++) {
+                moves &= moves - 1;
+            }
+            return Long.lowestOneBit(moves);
+        }
+    }
+}
@@ -2,214 +2,558 @@ package com.connect4.ai;
 
 import com.connect4.model.GameBoard;
 
-public class MinimaxAI {
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MinimaxAI implements AIEngine {
+    
+    /**
+     * Difficulty that plays perfectly using {@link Solver} instead of a
+     * depth-limited search once the position has 12 stones, or 8 when a move
+     * time is set and the solve fits in half of it. Earlier positions, and
+     * solves that run out of time, get the heuristic search.
+     */
+    public static final int SOLVER = 5;
+    
+    public enum ParallelMode {
+        YOUNG_BROTHERS_WAIT,
+        LAZY_SMP
+    }
+    
+    private static final int WIN_SCORE = SearchWorker.WIN_SCORE;
+    private static final int DEFAULT_TT_MEGABYTES = 16;
+    // Earlier positions can take the solver minutes, so they are still searched heuristically
+    private static final int SOLVER_MIN_MOVES = 12;
+    // With a move time, a solve that overruns half of it leaves the rest to the heuristic search
+    private static final int SOLVER_TIMED_MIN_MOVES = 8;
+    
     private final int difficulty;
     private final int maxDepth;
+    private final TranspositionTable transpositionTable;
+    private final RootSearch parallelSearch;
+    private final Solver solver;
+    private final SearchCounters counters = new SearchCounters();
+    private final SearchCounters ponderCounters = new SearchCounters();
+    // The running search's own flag, so stopSearch() never clears or outlives it
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    private MoveOrdering moveOrdering = MoveOrdering.ALL;
+    private EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    private OpeningBook openingBook;
+    private Duration moveTime;
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile SearchResult lastSearchResult;
     
     public MinimaxAI(int difficulty) {
+        this(difficulty, DEFAULT_TT_MEGABYTES, 1);
+    }
+    
+    public MinimaxAI(int difficulty, int transpositionTableMegabytes) {
+        this(difficulty, transpositionTableMegabytes, 1);
+    }
+    
+    /**
+     * @param threads number of cores to search on; more than one enables the
+     *                fork/join Young Brothers Wait search
+     */
+    public MinimaxAI(int difficulty, int transpositionTableMegabytes, int threads) {
+        this(difficulty, transpositionTableMegabytes, threads, ParallelMode.YOUNG_BROTHERS_WAIT);
+    }
+    
+    public MinimaxAI(int difficulty, int transpositionTableMegabytes, int threads, ParallelMode parallelMode) {
+        this(difficulty, depthFor(difficulty), transpositionTableMegabytes, threads, parallelMode);
+    }
+    
+    /**
+     * @param maxDepth search depth, overriding the one the difficulty implies
+     */
+    public MinimaxAI(int difficulty, int maxDepth, int transpositionTableMegabytes, int threads,
+                     ParallelMode parallelMode) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, got " + threads);
+        }
         this.difficulty = difficulty;
-        this.maxDepth = switch (difficulty) {
+        this.maxDepth = maxDepth;
+        this.transpositionTable = new TranspositionTable(transpositionTableMegabytes);
+        // The solver keys and bounds mean something else, so it must never see heuristic entries
+        this.solver = difficulty == SOLVER
+                ? new Solver(new TranspositionTable(transpositionTableMegabytes)) : null;
+        if (threads == 1) {
+            this.parallelSearch = null;
+        } else if (parallelMode == ParallelMode.LAZY_SMP) {
+            this.parallelSearch = new LazySmpSearch(transpositionTable, counters, threads);
+        } else {
+            this.parallelSearch = new ParallelSearch(transpositionTable, counters, threads);
+        }
+    }
+    
+    private static int depthFor(int difficulty) {
+        return switch (difficulty) {
             case 1 -> 2; // Easy
             case 2 -> 4; // Medium
             case 3 -> 6; // Hard
+            case SOLVER -> 6;
             default -> 4;
         };
     }
     
-    public int getBestMove(GameBoard board) {
-        int bestScore = Integer.MIN_VALUE;
-        int bestMove = 0;
+    /**
+     * Searches to the maximum depth, or with iterative deepening when a move
+     * time is set, stopping at whichever of the two comes first.
+     */
+    @Override
+    public int getBestMove(GameBoard board, AtomicBoolean stop) {
+        if (moveTime != null) {
+            return iterativeDeepening(board, moveTime, maxDepth, stop);
+        }
+        long start = System.nanoTime();
+        stopSignal = stop;
+        counters.reset();
+        int shortcut = bookOrSolverMove(board, start, 0, stop);
+        if (shortcut >= 0) {
+            return shortcut;
+        }
+        // One working copy per search; every node below is make/unmake on it
+        GameBoard searchBoard = new GameBoard(board);
+        transpositionTable.newSearch();
+        int move;
+        int score;
+        if (parallelSearch != null) {
+            move = parallelSearch.searchRoot(searchBoard, maxDepth, 0, stop);
+            score = parallelSearch.getLastRootScore();
+        } else {
+            SearchWorker worker = newWorker(0, stop);
+            move = worker.searchRoot(searchBoard, maxDepth);
+            score = worker.getLastRootScore();
+        }
+        publishIteration(searchBoard, move, score, maxDepth, start, counters.getNodes(), 0);
+        return move;
+    }
+    
+    /**
+     * Iterative deepening: searches one ply deeper at a time until
+     * {@code moveTime} runs out, and returns the best move of the last
+     * iteration that completed. An interrupted iteration is discarded.
+     */
+    public int getBestMove(GameBoard board, Duration moveTime) {
+        return iterativeDeepening(board, moveTime, Integer.MAX_VALUE, new AtomicBoolean());
+    }
+    
+    private int iterativeDeepening(GameBoard board, Duration moveTime, int depthLimit, AtomicBoolean stop) {
+        long start = System.nanoTime();
+        stopSignal = stop;
+        counters.reset();
+        long deadline = start + moveTime.toNanos();
+        int shortcut = bookOrSolverMove(board, start, start + moveTime.toNanos() / 2, stop);
+        if (shortcut >= 0) {
+            return shortcut;
+        }
+        GameBoard searchBoard = new GameBoard(board);
+        transpositionTable.newSearch();
+        SearchWorker worker = newWorker(deadline, stop);
         
-        for (int col = 0; col < GameBoard.COLS; col++) {
-            if (board.isColumnFull(col)) continue;
-            
-            GameBoard tempBoard = copyBoard(board);
-            tempBoard.dropPiece(col);
-            
-            int score = minimax(tempBoard, maxDepth, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
-            
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = col;
+        int bestMove = firstLegalMove(searchBoard);
+        int emptyCells = searchBoard.getRows() * searchBoard.getCols() - searchBoard.getMoveCount();
+        long previousIterationNodes = 0;
+        for (int depth = 0; depth < emptyCells && depth <= depthLimit; depth++) {
+            long nodesBefore = counters.getNodes();
+            int move;
+            int score;
+            if (parallelSearch != null) {
+                move = parallelSearch.searchRoot(searchBoard, depth, deadline, stop);
+                if (parallelSearch.isAborted()) break;
+                score = parallelSearch.getLastRootScore();
+            } else {
+                move = worker.searchRoot(searchBoard, depth);
+                if (worker.isAborted()) break;
+                score = worker.getLastRootScore();
             }
+            
+            bestMove = move;
+            long iterationNodes = counters.getNodes() - nodesBefore;
+            publishIteration(searchBoard, move, score, depth, start, iterationNodes, previousIterationNodes);
+            previousIterationNodes = iterationNodes;
+            // A forced result will not change with more depth
+            if (Math.abs(score) >= WIN_SCORE) break;
         }
         
         return bestMove;
     }
     
-    private int minimax(GameBoard board, int depth, boolean isMaximizing, int alpha, int beta) {
-        if (depth == 0 || board.checkWin(1) || board.checkWin(2) || board.isBoardFull()) {
-            return evaluateBoard(board);
+    /**
+     * Thinks on the opponent's time: searches every reply the opponent could
+     * make from {@code board}, filling the transposition table so that the
+     * search after the actual reply finds most of its work already done.
+     * Replies are deepened together, one ply at a time up to the search
+     * depth, so stopping early still leaves every reply partly searched.
+     * Blocks until done, until {@code stop} is set or until
+     * {@link #stopSearch()} is called.
+     */
+    @Override
+    public void ponder(GameBoard board, AtomicBoolean stop) {
+        stopSignal = stop;
+        ponderCounters.reset();
+        GameBoard position = new GameBoard(board);
+        int moveCount = position.getMoveCount();
+        if (solver != null && position.isStandardSize() && moveCount + 1 >= solverMinMoves(moveTime != null)) {
+            for (int col : moveOrdering.baseOrder(position.getCols())) {
+                if (position.isColumnFull(col)) continue;
+                position.makeMove(col);
+                if (!position.isLastMoveWin() && !position.isBoardFull()) {
+                    solver.solve(position, stop);
+                }
+                position.unmakeMove(col);
+                if (stop.get()) return;
+            }
+            return;
         }
         
-        if (isMaximizing) {
-            int maxEval = Integer.MIN_VALUE;
-            for (int col = 0; col < GameBoard.COLS; col++) {
-                if (board.isColumnFull(col)) continue;
-                
-                GameBoard tempBoard = copyBoard(board);
-                tempBoard.dropPiece(col);
-                tempBoard.switchPlayer();
-                
-                int eval = minimax(tempBoard, depth - 1, false, alpha, beta);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                
-                if (beta <= alpha) break;
+        // Lets pondering entries win slots over those left from the previous move
+        transpositionTable.newSearch();
+        SearchWorker worker = new SearchWorker(transpositionTable, moveOrdering, weights, ponderCounters, 0, stop, 0);
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            for (int col : moveOrdering.baseOrder(position.getCols())) {
+                if (position.isColumnFull(col)) continue;
+                position.makeMove(col);
+                if (!position.isLastMoveWin() && !position.isBoardFull()) {
+                    worker.searchRoot(position, depth);
+                }
+                position.unmakeMove(col);
+                if (worker.isAborted()) return;
             }
-            return maxEval;
-        } else {
-            int minEval = Integer.MAX_VALUE;
-            for (int col = 0; col < GameBoard.COLS; col++) {
-                if (board.isColumnFull(col)) continue;
-                
-                GameBoard tempBoard = copyBoard(board);
-                tempBoard.dropPiece(col);
-                tempBoard.switchPlayer();
-                
-                int eval = minimax(tempBoard, depth - 1, true, alpha, beta);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                
-                if (beta <= alpha) break;
+        }
+    }
+    
+    private SearchWorker newWorker(long deadline, AtomicBoolean stop) {
+        return new SearchWorker(transpositionTable, moveOrdering, weights, counters, deadline, stop, 0);
+    }
+    
+    /**
+     * Asks a search running on another thread to return as soon as possible.
+     * It returns the best move found so far; a search started afterwards is
+     * not affected, nor is one that has not begun yet.
+     */
+    @Override
+    public void stopSearch() {
+        stopSignal.set(true);
+    }
+    
+    /**
+     * Answers from the opening book, or from the solver at the perfect-play
+     * difficulty, and returns -1 when neither applies or the solve ran out of
+     * time before {@code solveDeadline} (0 for none).
+     */
+    private int bookOrSolverMove(GameBoard board, long start, long solveDeadline, AtomicBoolean stop) {
+        OpeningBook.Entry entry = bookEntry(board);
+        if (entry != null) {
+            publish(new SearchResult(entry.move(), entry.score(), 0, 0, System.nanoTime() - start,
+                                     0, 0, 0, List.of(entry.move())));
+            return entry.move();
+        }
+        int moveCount = board.getMoveCount();
+        // The solver only knows the standard board; other sizes are searched heuristically
+        if (solver != null && board.isStandardSize() && moveCount >= solverMinMoves(solveDeadline != 0)) {
+            solver.resetNodeCount();
+            Solver.Solution solution = solver.solve(board, stop, solveDeadline);
+            // A stop keeps the best column solved so far; running out of time hands over to the search
+            if (solution.bestMove() < 0 || solver.isAborted() && !stop.get()) {
+                return -1;
             }
-            return minEval;
+            publish(new SearchResult(solution.bestMove(), solution.score(), board.getRows() * board.getCols() - moveCount,
+                                     solver.getNodeCount(), System.nanoTime() - start, 0, 0, 0,
+                                     List.of(solution.bestMove())));
+            return solution.bestMove();
         }
+        return -1;
     }
     
-    private int evaluateBoard(GameBoard board) {
-        int score = 0;
+    private static int solverMinMoves(boolean timed) {
+        return timed ? SOLVER_TIMED_MIN_MOVES : SOLVER_MIN_MOVES;
+    }
+    
+    private OpeningBook.Entry bookEntry(GameBoard board) {
+        if (openingBook == null) {
+            return null;
+        }
+        OpeningBook.Entry entry = openingBook.lookup(board);
+        return entry != null && entry.move() >= 0 && entry.move() < board.getCols()
+                && !board.isColumnFull(entry.move()) ? entry : null;
+    }
+    
+    /**
+     * Reports a completed search depth. {@code depth} is the searchRoot depth,
+     * which looks one ply further than its value.
+     */
+    private void publishIteration(GameBoard board, int move, int score, int depth, long start,
+                                  long iterationNodes, long previousIterationNodes) {
+        int plies = depth + 1;
+        double branching = previousIterationNodes > 0
+                ? (double) iterationNodes / previousIterationNodes
+                : Math.pow(iterationNodes, 1.0 / plies);
+        publish(new SearchResult(move, score, plies, counters.getNodes(), System.nanoTime() - start,
+                                 counters.getTableHitRate(), counters.getCutoffRate(), branching,
+                                 principalVariation(board, move, plies)));
+    }
+    
+    private void publish(SearchResult result) {
+        lastSearchResult = result;
+        for (SearchListener listener : listeners) {
+            listener.onSearchProgress(result);
+        }
+    }
+    
+    /**
+     * Follows stored best moves through the transposition table from the
+     * root, stopping at a miss, the end of the game or {@code maxLength} moves.
+     */
+    private List<Integer> principalVariation(GameBoard board, int move, int maxLength) {
+        List<Integer> line = new ArrayList<>();
+        GameBoard position = new GameBoard(board);
+        int next = move;
+        while (next >= 0 && next < position.getCols() && !position.isColumnFull(next) && line.size() < maxLength) {
+            line.add(next);
+            position.makeMove(next);
+            if (position.isLastMoveWin() || position.isBoardFull()) break;
+            
+            long key = position.getCanonicalKey();
+            long entry = transpositionTable.probe(key);
+            next = entry == TranspositionTable.MISS ? -1 : TranspositionTable.bestMove(entry);
+            if (next >= 0 && key != position.getPositionKey()) next = position.mirrorColumn(next);
+        }
+        return line;
+    }
+    
+    private int firstLegalMove(GameBoard board) {
+        for (int col = 0; col < board.getCols(); col++) {
+            if (!board.isColumnFull(col)) return col;
+        }
+        return 0;
+    }
+    
+    /**
+     * Forgets everything learned by earlier searches, e.g. between games.
+     */
+    public void clearTranspositionTable() {
+        transpositionTable.clear();
+        if (solver != null) {
+            solver.clearTable();
+        }
+    }
+    
+    @Override
+    public void newGame() {
+        clearTranspositionTable();
+    }
+    
+    /**
+     * Book to play from before searching, or null to always search.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+    
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+    
+    /**
+     * Thinking time for {@link AIEngine#getBestMove(GameBoard)}, or null to always search to the full depth.
+     */
+    public void setMoveTime(Duration moveTime) {
+        this.moveTime = moveTime;
+    }
+    
+    public Duration getMoveTime() {
+        return moveTime;
+    }
+    
+    public void setMoveOrdering(MoveOrdering moveOrdering) {
+        this.moveOrdering = moveOrdering;
+        if (parallelSearch != null) {
+            parallelSearch.setMoveOrdering(moveOrdering);
+        }
+    }
+    
+    public MoveOrdering getMoveOrdering() {
+        return moveOrdering;
+    }
+    
+    /**
+     * Weights of the heuristic evaluation, e.g. for tuning them in a
+     * {@link Tournament}. The solver does not use them.
+     */
+    public void setEvaluationWeights(EvaluationWeights weights) {
+        this.weights = weights;
+        if (parallelSearch != null) {
+            parallelSearch.setEvaluationWeights(weights);
+        }
+    }
+    
+    public EvaluationWeights getEvaluationWeights() {
+        return weights;
+    }
+    
+    /**
+     * Called after every completed search depth, including book and solver answers.
+     */
+    public void addSearchListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeSearchListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Result of the deepest completed iteration of the most recent search, or null before the first.
+     */
+    @Override
+    public SearchResult getLastSearchResult() {
+        return lastSearchResult;
+    }
+    
+    /**
+     * Node and cutoff counts of the most recent search.
+     */
+    public SearchCounters getLastSearchCounters() {
+        return counters;
+    }
+    
+    /**
+     * Node and cutoff counts of the most recent {@link AIEngine#ponder(GameBoard)}.
+     */
+    public SearchCounters getLastPonderCounters() {
+        return ponderCounters;
+    }
+    
+    /**
+     * Releases the worker threads of a multi-threaded search.
+     */
+    @Override
+    public void shutdown() {
+        if (parallelSearch != null) {
+            parallelSearch.shutdown();
+        }
+    }
+    
+    /**
+     * Full-board reference for the heuristic. The search itself keeps the
+     * same score up to date with {@link IncrementalEvaluator}.
+     */
+    static int evaluateBoard(GameBoard board, int aiPlayer) {
+        return evaluateBoard(board, aiPlayer, EvaluationWeights.DEFAULT);
+    }
+    
+    static int evaluateBoard(GameBoard board, int aiPlayer, EvaluationWeights weights) {
+        int opponent = 3 - aiPlayer;
         
         // Check for wins
-        if (board.checkWin(2)) {
-            return 1000;
+        if (board.checkWin(aiPlayer)) {
+            return WIN_SCORE;
         }
-        if (board.checkWin(1)) {
-            return -1000;
+        if (board.checkWin(opponent)) {
+            return -WIN_SCORE;
         }
         
-        // Evaluate positions
-        score += evaluatePosition(board, 2);
-        score -= evaluatePosition(board, 1);
-        
-        return score;
+        return evaluatePosition(board, aiPlayer, weights) - evaluatePosition(board, opponent, weights);
     }
     
-    private int evaluatePosition(GameBoard board, int player) {
+    private static int evaluatePosition(GameBoard board, int player, EvaluationWeights weights) {
+        int rows = board.getRows();
+        int cols = board.getCols();
         int score = 0;
         
         // Center column preference
-        int[] centerArray = new int[GameBoard.ROWS];
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            centerArray[row] = board.getPiece(row, GameBoard.COLS / 2);
+        int centerCount = 0;
+        for (int row = 0; row < rows; row++) {
+            if (board.getPiece(row, cols / 2) == player) {
+                centerCount++;
+            }
         }
-        int centerCount = countConsecutive(centerArray, player);
-        score += centerCount * 3;
+        score += centerCount * weights.center();
         
         // Horizontal scoring
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            int[] rowArray = new int[GameBoard.COLS];
-            for (int col = 0; col < GameBoard.COLS; col++) {
-                rowArray[col] = board.getPiece(row, col);
-            }
-            score += evaluateLine(rowArray, player);
+        for (int row = 0; row < rows; row++) {
+            score += evaluateLine(board, row, 0, 0, 1, cols, player, weights);
         }
         
         // Vertical scoring
-        for (int col = 0; col < GameBoard.COLS; col++) {
-            int[] colArray = new int[GameBoard.ROWS];
-            for (int row = 0; row < GameBoard.ROWS; row++) {
-                colArray[row] = board.getPiece(row, col);
-            }
-            score += evaluateLine(colArray, player);
+        for (int col = 0; col < cols; col++) {
+            score += evaluateLine(board, 0, col, 1, 0, rows, player, weights);
         }
         
         // Diagonal scoring
-        score += evaluateDiagonals(board, player);
+        score += evaluateDiagonals(board, player, weights);
         
         return score;
     }
     
-    private int evaluateLine(int[] line, int player) {
+    /**
+     * Scores every window of N cells along the line of {@code length} cells
+     * that starts at (row, col) and steps by (dRow, dCol).
+     */
+    private static int evaluateLine(GameBoard board, int row, int col, int dRow, int dCol, int length, int player,
+                                    EvaluationWeights weights) {
+        int n = board.getConnect();
         int score = 0;
         
-        for (int i = 0; i < line.length - 3; i++) {
+        for (int i = 0; i <= length - n; i++) {
             int count = 0;
             int empty = 0;
             
-            for (int j = 0; j < 4; j++) {
-                if (line[i + j] == player) {
+            for (int j = 0; j < n; j++) {
+                int piece = board.getPiece(row + (i + j) * dRow, col + (i + j) * dCol);
+                if (piece == player) {
                     count++;
-                } else if (line[i + j] == 0) {
+                } else if (piece == 0) {
                     empty++;
                 }
             }
             
-            if (count == 4) {
+            if (count == n) {
                 score += 100;
-            } else if (count == 3 && empty == 1) {
-                score += 5;
-            } else if (count == 2 && empty == 2) {
-                score += 2;
+            } else if (count == n - 1 && empty == 1) {
+                score += weights.three();
+            } else if (count == n - 2 && empty == 2) {
+                score += weights.two();
             }
         }
         
         return score;
     }
     
-    private int evaluateDiagonals(GameBoard board, int player) {
+    private static int evaluateDiagonals(GameBoard board, int player, EvaluationWeights weights) {
+        int n = board.getConnect();
         int score = 0;
         
         // Positive slope diagonals
-        for (int row = 3; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS - 3; col++) {
-                int[] diag = new int[4];
-                for (int i = 0; i < 4; i++) {
-                    diag[i] = board.getPiece(row - i, col + i);
-                }
-                score += evaluateLine(diag, player);
+        for (int row = n - 1; row < board.getRows(); row++) {
+            for (int col = 0; col <= board.getCols() - n; col++) {
+                score += evaluateLine(board, row, col, -1, 1, n, player, weights);
             }
         }
         
         // Negative slope diagonals
-        for (int row = 0; row < GameBoard.ROWS - 3; row++) {
-            for (int col = 0; col < GameBoard.COLS - 3; col++) {
-                int[] diag = new int[4];
-                for (int i = 0; i < 4; i++) {
-                    diag[i] = board.getPiece(row + i, col + i);
-                }
-                score += evaluateLine(diag, player);
+        for (int row = 0; row <= board.getRows() - n; row++) {
+            for (int col = 0; col <= board.getCols() - n; col++) {
+                score += evaluateLine(board, row, col, 1, 1, n, player, weights);
             }
         }
         
         return score;
     }
     
-    private int countConsecutive(int[] array, int player) {
-        int count = 0;
-        for (int value : array) {
-            if (value == player) {
-                count++;
-            }
-        }
-        return count;
+    public int getDifficulty() {
+        return difficulty;
     }
     
-    private GameBoard copyBoard(GameBoard original) {
-        GameBoard copy = new GameBoard();
-        int[][] originalBoard = original.getBoard();
-        
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS; col++) {
-                copy.getBoard()[row][col] = originalBoard[row][col];
-            }
-        }
-        copy.setCurrentPlayer(original.getCurrentPlayer());
-        
-        return copy;
+    public int getMaxDepth() {
+        return maxDepth;
     }
     
-    public int getDifficulty() {
-        return difficulty;
+    public int getThreads() {
+        return parallelSearch != null ? parallelSearch.getParallelism() : 1;
     }
 }
@@ -0,0 +1,126 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Read-only opening book memory-mapped from a binary file.
+ *
+ * The file is a 16-byte header (magic, version, entry count) followed by
+ * fixed 10-byte entries sorted by position key: the key from
+ * {@link GameBoard#getCanonicalKey()}, the best column and the solver score
+ * for the side to move. A position and its mirror image share one entry,
+ * whose move is stored for the canonical side. Lookups binary-search the mapping directly, so
+ * opening a book costs nothing up front and nothing is copied onto the heap.
+ */
+public class OpeningBook {
+    static final int MAGIC = 0x43344F42; // "C4OB"
+    // Version 1 books were keyed without mirroring
+    static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 10;
+    
+    public record Entry(int move, int score) { }
+    
+    private final MappedByteBuffer buffer;
+    private final int size;
+    
+    private OpeningBook(MappedByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+    
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported opening book version " + buffer.getInt(4) + " in " + file);
+            }
+            long size = buffer.getLong(8);
+            if (size < 0 || HEADER_BYTES + size * ENTRY_BYTES != length) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(buffer, (int) size);
+        }
+    }
+    
+    /**
+     * Writes {@code entries} as a book file, replacing any existing one.
+     */
+    public static void write(Path file, SortedMap<Long, Entry> entries) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(entries.size());
+        
+        ByteBuffer body = ByteBuffer.allocate(entries.size() * ENTRY_BYTES);
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            body.putLong(entry.getKey());
+            body.put((byte) entry.getValue().move());
+            body.put((byte) entry.getValue().score());
+        }
+        
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            out.write(body.array());
+        }
+    }
+    
+    /**
+     * Returns the book entry for the position, with the move mapped back if
+     * it was stored for the mirror image, or null if the position is not in
+     * the book. Books cover the standard board only.
+     */
+    public Entry lookup(GameBoard board) {
+        if (!board.isStandardSize()) {
+            return null;
+        }
+        long key = board.getCanonicalKey();
+        Entry entry = lookup(key);
+        if (entry == null || key == board.getPositionKey()) {
+            return entry;
+        }
+        return new Entry(board.mirrorColumn(entry.move()), entry.score());
+    }
+    
+    /**
+     * Returns the entry stored under a canonical key, as written.
+     */
+    public Entry lookup(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * ENTRY_BYTES;
+            long midKey = buffer.getLong(offset);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return new Entry(buffer.get(offset + 8), buffer.get(offset + 9));
+            }
+        }
+        return null;
+    }
+    
+    public int size() {
+        return size;
+    }
+}
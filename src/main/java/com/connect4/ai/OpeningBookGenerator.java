@@ -0,0 +1,80 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Offline tool that solves every position up to a given number of plies and
+ * writes the results as an {@link OpeningBook}.
+ *
+ * Usage: {@code java com.connect4.ai.OpeningBookGenerator <output file> [plies] [tt megabytes]}
+ *
+ * Solving the shallowest positions is slow, so books deeper than a few plies
+ * take hours to build.
+ */
+public class OpeningBookGenerator {
+    private static final int DEFAULT_PLIES = 8;
+    private static final int DEFAULT_TT_MEGABYTES = 256;
+    
+    private final Solver solver;
+    private final SortedMap<Long, OpeningBook.Entry> entries = new TreeMap<>();
+    private long solvedCount;
+    
+    public OpeningBookGenerator(Solver solver) {
+        this.solver = solver;
+    }
+    
+    /**
+     * Solves {@code root} and every position reachable from it in fewer
+     * than {@code plies} moves, skipping finished games.
+     */
+    public SortedMap<Long, OpeningBook.Entry> generate(GameBoard root, int plies) {
+        expand(new GameBoard(root), plies);
+        return entries;
+    }
+    
+    private void expand(GameBoard board, int plies) {
+        if (plies == 0 || board.isBoardFull() || board.isLastMoveWin()) {
+            return;
+        }
+        // Mirror images are solved once, and stored for the canonical side
+        long key = board.getCanonicalKey();
+        if (entries.containsKey(key)) {
+            return;
+        }
+        
+        Solver.Solution solution = solver.solve(board);
+        int move = key == board.getPositionKey() ? solution.bestMove() : board.mirrorColumn(solution.bestMove());
+        entries.put(key, new OpeningBook.Entry(move, solution.score()));
+        if (++solvedCount % 1000 == 0) {
+            System.out.println("Solved " + solvedCount + " positions");
+        }
+        
+        for (int col = 0; col < GameBoard.COLS; col++) {
+            if (board.isColumnFull(col)) continue;
+            
+            board.makeMove(col);
+            expand(board, plies - 1);
+            board.unmakeMove(col);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: OpeningBookGenerator <output file> [plies] [tt megabytes]");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TT_MEGABYTES;
+        
+        OpeningBookGenerator generator = new OpeningBookGenerator(new Solver(megabytes));
+        SortedMap<Long, OpeningBook.Entry> book = generator.generate(new GameBoard(), plies);
+        OpeningBook.write(output, book);
+        System.out.println("Wrote " + book.size() + " positions to " + output);
+    }
+}
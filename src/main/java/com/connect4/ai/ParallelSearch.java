@@ -0,0 +1,226 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Young Brothers Wait search on a {@link ForkJoinPool}. At the root and at
+ * every node with at least {@link #MIN_SPLIT_DEPTH} plies left, the first
+ * move in {@link MoveOrdering} order is searched on its own to establish a bound, and the remaining
+ * moves are then forked in parallel. Siblings share that node's alpha through
+ * an {@link AtomicInteger}, reading it when they start and raising it when
+ * they finish. Shallower nodes fall back to a {@link SearchWorker}, one
+ * per pool thread, kept between tasks so its killer and history tables
+ * carry over.
+ */
+class ParallelSearch implements RootSearch {
+    private static final int MIN_SPLIT_DEPTH = 4;
+    
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final SearchCounters counters;
+    private AtomicBoolean stopSignal;
+    private volatile MoveOrdering ordering = MoveOrdering.ALL;
+    private volatile EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    private long deadline;
+    private volatile boolean aborted;
+    private int lastRootScore;
+    private final ThreadLocal<SearchWorker> workers = new ThreadLocal<>();
+    
+    ParallelSearch(TranspositionTable transpositionTable, SearchCounters counters, int threads) {
+        this.transpositionTable = transpositionTable;
+        this.counters = counters;
+        this.pool = new ForkJoinPool(threads);
+    }
+    
+    @Override
+    public int searchRoot(GameBoard board, int depth, long deadline, AtomicBoolean stop) {
+        this.deadline = deadline;
+        this.stopSignal = stop;
+        this.aborted = false;
+        if (depth + 1 < MIN_SPLIT_DEPTH) {
+            // Too shallow to be worth splitting
+            SearchWorker worker = worker();
+            int move = worker.searchRoot(board, depth);
+            aborted = worker.isAborted();
+            lastRootScore = worker.getLastRootScore();
+            return move;
+        }
+        
+        NodeResult root = pool.invoke(new SplitTask(new GameBoard(board), depth + 1, -SearchWorker.INFINITY, SearchWorker.INFINITY));
+        lastRootScore = root.score;
+        // Stopped before the eldest brother was searched; play it anyway, as SearchWorker does
+        return root.move >= 0 ? root.move : firstMove(board);
+    }
+    
+    private int firstMove(GameBoard board) {
+        for (int col : ordering.baseOrder(board.getCols())) {
+            if (!board.isColumnFull(col)) return col;
+        }
+        return 0;
+    }
+    
+    private SearchWorker worker() {
+        SearchWorker worker = workers.get();
+        if (worker == null || worker.getOrdering() != ordering || worker.getWeights() != weights) {
+            worker = new SearchWorker(transpositionTable, ordering, weights, counters, deadline, stopSignal, 0);
+            workers.set(worker);
+        }
+        worker.restart(deadline, stopSignal);
+        return worker;
+    }
+    
+    @Override
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+    
+    @Override
+    public void setEvaluationWeights(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+    
+    @Override
+    public boolean isAborted() {
+        return aborted;
+    }
+    
+    @Override
+    public int getLastRootScore() {
+        return lastRootScore;
+    }
+    
+    @Override
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+    
+    @Override
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    private record NodeResult(int score, int move) { }
+    
+    /**
+     * Searches {@code board} to {@code depth} plies, splitting its children
+     * across the pool once the eldest child has been searched.
+     */
+    @SuppressWarnings("serial")
+    private class SplitTask extends RecursiveTask<NodeResult> {
+        private final GameBoard board;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        
+        SplitTask(GameBoard board, int depth, int alpha, int beta) {
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+        
+        @Override
+        protected NodeResult compute() {
+            // Leaf workers see too few nodes to poll the clock themselves
+            if (aborted || stopSignal.get() || (deadline != 0 && System.nanoTime() - deadline >= 0)) {
+                aborted = true;
+                return new NodeResult(0, -1);
+            }
+            if (depth < MIN_SPLIT_DEPTH) {
+                SearchWorker worker = worker();
+                int score = worker.searchNode(board, depth, alpha, beta);
+                if (worker.isAborted()) aborted = true;
+                return new NodeResult(score, -1);
+            }
+            if (board.isLastMoveWin()) {
+                return new NodeResult(-SearchWorker.WIN_SCORE - depth, -1);
+            }
+            
+            List<Integer> moves = new ArrayList<>();
+            int hashMove = hashMove();
+            if (hashMove >= 0) moves.add(hashMove);
+            for (int col : ordering.baseOrder(board.getCols())) {
+                if (!board.isColumnFull(col) && col != hashMove) moves.add(col);
+            }
+            if (moves.isEmpty()) {
+                return new NodeResult(MinimaxAI.evaluateBoard(board, board.getCurrentPlayer(), weights), -1);
+            }
+            
+            // Eldest brother first, on this thread
+            int eldest = moves.get(0);
+            int bestScore = searchChild(eldest, alpha);
+            int bestMove = eldest;
+            if (aborted || bestScore >= beta) {
+                return new NodeResult(bestScore, bestMove);
+            }
+            
+            AtomicInteger sharedAlpha = new AtomicInteger(Math.max(alpha, bestScore));
+            List<SiblingTask> siblings = new ArrayList<>();
+            for (int i = 1; i < moves.size(); i++) {
+                siblings.add(new SiblingTask(moves.get(i), sharedAlpha));
+            }
+            invokeAll(siblings);
+            
+            // A sibling that failed low returned a bound, not a score, and can
+            // tie with the alpha another sibling raised; only a strictly better
+            // score from inside the window replaces the eldest brother
+            for (SiblingTask sibling : siblings) {
+                int score = sibling.join();
+                if (!sibling.failedLow && score > bestScore) {
+                    bestScore = score;
+                    bestMove = sibling.col;
+                }
+            }
+            return new NodeResult(aborted ? 0 : bestScore, bestMove);
+        }
+        
+        private int hashMove() {
+            if (!ordering.hashMove()) return -1;
+            long key = board.getCanonicalKey();
+            long entry = transpositionTable.probe(key);
+            if (entry == TranspositionTable.MISS) return -1;
+            int move = TranspositionTable.bestMove(entry);
+            if (move >= 0 && key != board.getPositionKey()) move = board.mirrorColumn(move);
+            return move >= 0 && move < board.getCols() && !board.isColumnFull(move) ? move : -1;
+        }
+        
+        private int searchChild(int col, int childAlpha) {
+            GameBoard child = new GameBoard(board);
+            child.makeMove(col);
+            return -new SplitTask(child, depth - 1, -beta, -childAlpha).compute().score;
+        }
+        
+        @SuppressWarnings("serial")
+        private class SiblingTask extends RecursiveTask<Integer> {
+            private final int col;
+            private final AtomicInteger sharedAlpha;
+            private boolean failedLow;
+            
+            SiblingTask(int col, AtomicInteger sharedAlpha) {
+                this.col = col;
+                this.sharedAlpha = sharedAlpha;
+            }
+            
+            @Override
+            protected Integer compute() {
+                int windowAlpha = sharedAlpha.get();
+                if (windowAlpha >= beta) {
+                    // A sibling already refuted this node
+                    failedLow = true;
+                    return -SearchWorker.INFINITY;
+                }
+                int score = searchChild(col, windowAlpha);
+                failedLow = score <= windowAlpha;
+                sharedAlpha.accumulateAndGet(score, Math::max);
+                return score;
+            }
+        }
+    }
+}
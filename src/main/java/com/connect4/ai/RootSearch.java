@@ -0,0 +1,31 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A multi-threaded strategy for searching the root position, so
+ * {@link MinimaxAI} can switch between tree splitting and Lazy SMP.
+ */
+interface RootSearch {
+    
+    /**
+     * Searches every root move {@code depth} plies deeper and returns the best
+     * column, giving up at {@code deadline} ({@link System#nanoTime()}, 0 for none)
+     * or once {@code stop} is set.
+     */
+    int searchRoot(GameBoard board, int depth, long deadline, AtomicBoolean stop);
+    
+    void setMoveOrdering(MoveOrdering ordering);
+    
+    void setEvaluationWeights(EvaluationWeights weights);
+    
+    boolean isAborted();
+    
+    int getLastRootScore();
+    
+    int getParallelism();
+    
+    void shutdown();
+}
@@ -0,0 +1,89 @@
+package com.connect4.ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Work counters for the most recent search. Search threads count locally
+ * and add their totals here when they finish, so reading these while a
+ * search is running shows only finished work.
+ */
+public class SearchCounters {
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder expandedNodes = new LongAdder();
+    private final LongAdder betaCutoffs = new LongAdder();
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    
+    void add(long nodes, long expandedNodes, long betaCutoffs, long firstMoveCutoffs, long tableProbes, long tableHits) {
+        this.nodes.add(nodes);
+        this.expandedNodes.add(expandedNodes);
+        this.betaCutoffs.add(betaCutoffs);
+        this.firstMoveCutoffs.add(firstMoveCutoffs);
+        this.tableProbes.add(tableProbes);
+        this.tableHits.add(tableHits);
+    }
+    
+    void reset() {
+        nodes.reset();
+        expandedNodes.reset();
+        betaCutoffs.reset();
+        firstMoveCutoffs.reset();
+        tableProbes.reset();
+        tableHits.reset();
+    }
+    
+    /**
+     * Every position visited, including leaves and transposition table hits.
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+    
+    /**
+     * Positions whose children were actually searched.
+     */
+    public long getExpandedNodes() {
+        return expandedNodes.sum();
+    }
+    
+    public long getBetaCutoffs() {
+        return betaCutoffs.sum();
+    }
+    
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs.sum();
+    }
+    
+    public long getTableProbes() {
+        return tableProbes.sum();
+    }
+    
+    public long getTableHits() {
+        return tableHits.sum();
+    }
+    
+    /**
+     * Share of transposition table probes that found an entry for the position.
+     */
+    public double getTableHitRate() {
+        long probes = getTableProbes();
+        return probes == 0 ? 0 : (double) getTableHits() / probes;
+    }
+    
+    /**
+     * Share of expanded nodes that ended in a beta cutoff.
+     */
+    public double getCutoffRate() {
+        long expanded = getExpandedNodes();
+        return expanded == 0 ? 0 : (double) getBetaCutoffs() / expanded;
+    }
+    
+    /**
+     * Share of cutoffs produced by the first move tried, the usual measure of ordering quality.
+     */
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = getBetaCutoffs();
+        return cutoffs == 0 ? 0 : (double) getFirstMoveCutoffs() / cutoffs;
+    }
+}
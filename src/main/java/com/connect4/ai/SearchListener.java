@@ -0,0 +1,12 @@
+package com.connect4.ai;
+
+/**
+ * Receives a {@link SearchResult} every time {@link MinimaxAI} completes a
+ * search depth, so callers can show live analysis or export metrics.
+ * Called on the searching thread, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface SearchListener {
+    
+    void onSearchProgress(SearchResult result);
+}
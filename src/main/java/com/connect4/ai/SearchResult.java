@@ -0,0 +1,31 @@
+package com.connect4.ai;
+
+import java.util.List;
+
+/**
+ * What one search (or one iteration of a timed search) found and how much
+ * work it took.
+ *
+ * @param score                     for the side to move, in the engine's units:
+ *                                  heuristic points for the searcher, solver score
+ *                                  for the perfect-play difficulty
+ * @param depth                     plies searched below the root position
+ * @param elapsedNanos              wall time since the search started
+ * @param tableHitRate              share of transposition table probes that found an entry
+ * @param cutoffRate                share of expanded nodes that ended in a beta cutoff
+ * @param effectiveBranchingFactor  nodes of this iteration over the previous one, or
+ *                                  the depth-th root of the node count for a single search
+ * @param principalVariation        expected line of play starting with {@code bestMove}
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos,
+                           double tableHitRate, double cutoffRate, double effectiveBranchingFactor,
+                           List<Integer> principalVariation) {
+    
+    public SearchResult {
+        principalVariation = List.copyOf(principalVariation);
+    }
+    
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,329 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-threaded alpha-beta searcher. Holds the per-thread search state
+ * (node counts, deadline, abort flag, killer and history tables) so several
+ * workers can run against one shared {@link TranspositionTable}.
+ */
+class SearchWorker {
+    static final int WIN_SCORE = 1000;
+    static final int INFINITY = 1_000_000;
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+    
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering ordering;
+    private final EvaluationWeights weights;
+    private final int orderRotation;
+    private int[] baseOrder;
+    private final SearchCounters counters;
+    private long deadline;
+    private AtomicBoolean stopSignal;
+    private boolean aborted;
+    private int lastRootScore;
+    
+    // Move lists are indexed by absolute ply (pieces on the board) so no node allocates;
+    // they are sized for the standard board and regrown by prepare() for larger ones
+    private int[][] moveBuffer;
+    private int[][] orderScores;
+    private int[][] killers;
+    private int[][] history;
+    private final IncrementalEvaluator evaluator;
+    
+    private long nodes;
+    private long expandedNodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long tableProbes;
+    private long tableHits;
+    
+    /**
+     * @param deadline {@link System#nanoTime()} at which to give up, or 0 for no limit
+     */
+    SearchWorker(TranspositionTable transpositionTable, MoveOrdering ordering, SearchCounters counters, long deadline) {
+        this(transpositionTable, ordering, counters, deadline, null, 0);
+    }
+    
+    /**
+     * @param stopSignal    set by another thread to abandon this search, or null
+     * @param orderRotation places to rotate the ordering's static column order by
+     */
+    SearchWorker(TranspositionTable transpositionTable, MoveOrdering ordering, SearchCounters counters,
+                 long deadline, AtomicBoolean stopSignal, int orderRotation) {
+        this(transpositionTable, ordering, EvaluationWeights.DEFAULT, counters, deadline, stopSignal, orderRotation);
+    }
+    
+    SearchWorker(TranspositionTable transpositionTable, MoveOrdering ordering, EvaluationWeights weights,
+                 SearchCounters counters, long deadline, AtomicBoolean stopSignal, int orderRotation) {
+        this.transpositionTable = transpositionTable;
+        this.ordering = ordering;
+        this.evaluator = new IncrementalEvaluator(weights);
+        this.weights = weights;
+        this.counters = counters;
+        this.deadline = deadline;
+        this.stopSignal = stopSignal;
+        this.orderRotation = orderRotation;
+        allocate(GameBoard.ROWS, GameBoard.COLS);
+    }
+    
+    private void allocate(int rows, int cols) {
+        int maxPly = rows * cols + 1;
+        moveBuffer = new int[maxPly][cols];
+        orderScores = new int[maxPly][cols];
+        killers = new int[maxPly][2];
+        history = new int[3][cols];
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, -1);
+        }
+        baseOrder = MoveOrdering.rotate(ordering.baseOrder(cols), orderRotation);
+    }
+    
+    /**
+     * Fits the buffers and column order to the size of {@code board} and
+     * loads its pieces into the evaluator.
+     */
+    private void prepare(GameBoard board) {
+        if (board.getCols() != history[0].length || board.getRows() * board.getCols() + 1 != moveBuffer.length) {
+            allocate(board.getRows(), board.getCols());
+        }
+        evaluator.load(board);
+    }
+    
+    int searchRoot(GameBoard board, int depth) {
+        prepare(board);
+        long key = board.getCanonicalKey();
+        boolean mirrored = key != board.getPositionKey();
+        int ply = board.getMoveCount();
+        int moveCount = orderMoves(board, ply, hashMoveFor(board, transpositionTable.probe(key), mirrored));
+        int[] moves = moveBuffer[ply];
+        int bestScore = -INFINITY;
+        int bestMove = moveCount > 0 ? moves[0] : 0;
+        
+        for (int i = 0; i < moveCount; i++) {
+            int col = moves[i];
+            makeMove(board, col);
+            int score = -negamax(board, depth, -INFINITY, -bestScore);
+            unmakeMove(board, col);
+            if (aborted) break;
+            
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = col;
+            }
+        }
+        
+        if (!aborted && moveCount > 0) {
+            // Lets the next iteration try this move first
+            transpositionTable.store(key, depth + 1, TranspositionTable.EXACT, bestScore,
+                                     mirrored ? board.mirrorColumn(bestMove) : bestMove);
+        }
+        lastRootScore = bestScore;
+        flushCounters();
+        return bestMove;
+    }
+    
+    /**
+     * Searches a single node from scratch, for callers that split the tree themselves.
+     */
+    int searchNode(GameBoard board, int depth, int alpha, int beta) {
+        prepare(board);
+        int score = negamax(board, depth, alpha, beta);
+        flushCounters();
+        return score;
+    }
+    
+    /**
+     * Alpha-beta search scored from the side to move at {@code board}.
+     */
+    private int negamax(GameBoard board, int depth, int alpha, int beta) {
+        if (timeUp()) {
+            return 0;
+        }
+        
+        // Only the side that just moved can have completed a line
+        if (board.isLastMoveWin()) {
+            return -WIN_SCORE - depth;
+        }
+        if (depth == 0 || board.isBoardFull()) {
+            return evaluator.evaluate(board.getCurrentPlayer());
+        }
+        
+        // Mirror images share an entry; its move is stored as seen from the canonical side
+        long key = board.getCanonicalKey();
+        boolean mirrored = key != board.getPositionKey();
+        long entry = transpositionTable.probe(key);
+        tableProbes++;
+        if (entry != TranspositionTable.MISS) tableHits++;
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            int stored = TranspositionTable.score(entry);
+            switch (TranspositionTable.flag(entry)) {
+                case TranspositionTable.EXACT -> {
+                    return stored;
+                }
+                case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, stored);
+                case TranspositionTable.UPPER_BOUND -> beta = Math.min(beta, stored);
+                default -> { }
+            }
+            if (alpha >= beta) {
+                return stored;
+            }
+        }
+        
+        expandedNodes++;
+        int ply = board.getMoveCount();
+        int moveCount = orderMoves(board, ply, hashMoveFor(board, entry, mirrored));
+        int[] moves = moveBuffer[ply];
+        
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < moveCount; i++) {
+            int col = moves[i];
+            makeMove(board, col);
+            int score = -negamax(board, depth - 1, -beta, -alpha);
+            unmakeMove(board, col);
+            if (aborted) return 0;
+            
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = col;
+            }
+            alpha = Math.max(alpha, score);
+            
+            if (alpha >= beta) {
+                betaCutoffs++;
+                if (i == 0) firstMoveCutoffs++;
+                recordCutoff(board.getCurrentPlayer(), ply, col, depth);
+                break;
+            }
+        }
+        
+        int flag = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                 : bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                 : TranspositionTable.EXACT;
+        transpositionTable.store(key, depth, flag, bestScore,
+                                 mirrored && bestMove >= 0 ? board.mirrorColumn(bestMove) : bestMove);
+        return bestScore;
+    }
+    
+    private void makeMove(GameBoard board, int col) {
+        evaluator.play(col, board.getCurrentPlayer());
+        board.makeMove(col);
+    }
+    
+    private void unmakeMove(GameBoard board, int col) {
+        board.unmakeMove(col);
+        evaluator.undo(col, board.getCurrentPlayer());
+    }
+    
+    private int hashMoveFor(GameBoard board, long entry, boolean mirrored) {
+        if (!ordering.hashMove() || entry == TranspositionTable.MISS) {
+            return -1;
+        }
+        // The table is shared without locks, so never trust a stored move blindly
+        int move = TranspositionTable.bestMove(entry);
+        if (mirrored && move >= 0) move = board.mirrorColumn(move);
+        return move >= 0 && move < board.getCols() && !board.isColumnFull(move) ? move : -1;
+    }
+    
+    /**
+     * Fills {@code moveBuffer[ply]} with the legal columns, best candidates
+     * first, and returns how many there are. Ties keep the static order.
+     */
+    private int orderMoves(GameBoard board, int ply, int hashMove) {
+        int[] moves = moveBuffer[ply];
+        int[] scores = orderScores[ply];
+        int side = board.getCurrentPlayer();
+        int count = 0;
+        
+        for (int col : baseOrder) {
+            if (board.isColumnFull(col)) continue;
+            
+            int score = 0;
+            if (col == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (ordering.killerMoves() && col == killers[ply][0]) {
+                score = KILLER_SCORE;
+            } else if (ordering.killerMoves() && col == killers[ply][1]) {
+                score = KILLER_SCORE - 1;
+            } else if (ordering.history()) {
+                score = history[side][col];
+            }
+            
+            int j = count++;
+            while (j > 0 && scores[j - 1] < score) {
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moves[j] = col;
+            scores[j] = score;
+        }
+        return count;
+    }
+    
+    private void recordCutoff(int side, int ply, int col, int depth) {
+        if (ordering.killerMoves() && killers[ply][0] != col) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = col;
+        }
+        if (ordering.history()) {
+            history[side][col] = Math.min(history[side][col] + depth * depth, KILLER_SCORE - 2);
+        }
+    }
+    
+    private boolean timeUp() {
+        nodes++;
+        if ((nodes & TIME_CHECK_MASK) == 0) {
+            if ((deadline != 0 && System.nanoTime() - deadline >= 0)
+                    || (stopSignal != null && stopSignal.get())) {
+                aborted = true;
+            }
+        }
+        return aborted;
+    }
+    
+    /**
+     * Adds this worker's counts to the shared {@link SearchCounters} and starts counting afresh.
+     */
+    void flushCounters() {
+        counters.add(nodes, expandedNodes, betaCutoffs, firstMoveCutoffs, tableProbes, tableHits);
+        nodes = 0;
+        expandedNodes = 0;
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        tableProbes = 0;
+        tableHits = 0;
+    }
+    
+    /**
+     * Readies a reused worker for a new search, keeping its killer and history tables.
+     */
+    void restart(long deadline, AtomicBoolean stopSignal) {
+        this.deadline = deadline;
+        this.stopSignal = stopSignal;
+        aborted = false;
+    }
+    
+    MoveOrdering getOrdering() {
+        return ordering;
+    }
+    
+    EvaluationWeights getWeights() {
+        return weights;
+    }
+    
+    boolean isAborted() {
+        return aborted;
+    }
+    
+    int getLastRootScore() {
+        return lastRootScore;
+    }
+}
@@ -0,0 +1,370 @@
+package com.connect4.ai;
+
+import com.connect4.model.BitBoard;
+import com.connect4.model.GameBoard;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Perfect-play solver for the standard 6x7 board; other board sizes are
+ * left to the heuristic search.
+ *
+ * Scores follow the usual convention: 0 is a draw, a positive score means
+ * the side to move wins and is higher the sooner it wins (one point per
+ * stone the winner did not need), a negative score means it loses.
+ *
+ * The search is a null-window negamax over two longs per position (stones of
+ * the side to move and the occupancy mask). It only tries moves that do not
+ * hand the opponent an immediate win, orders them by the number of threats
+ * they create and then center-first, and narrows the score range with a
+ * dichotomic sequence of null-window searches.
+ */
+public class Solver {
+    
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+    
+    /**
+     * Game-theoretic value of a position for the side to move.
+     *
+     * @param pliesToEnd moves (both sides) until the game ends with perfect play
+     */
+    public record Solution(int score, int bestMove, Outcome outcome, int pliesToEnd) { }
+    
+    private static final int WIDTH = BitBoard.COLS;
+    private static final int HEIGHT = BitBoard.ROWS;
+    private static final int H1 = BitBoard.HEIGHT;
+    private static final int CELLS = WIDTH * HEIGHT;
+    private static final int[] COLUMN_ORDER = {3, 2, 4, 1, 5, 0, 6};
+    private static final long BOTTOM_MASK = bottomMask();
+    private static final long BOARD_MASK = BOTTOM_MASK * ((1L << HEIGHT) - 1);
+    
+    private static final int STOP_CHECK_MASK = 4095;
+    
+    private final TranspositionTable table;
+    private AtomicBoolean stopSignal;
+    private long deadline;
+    private boolean stopped;
+    // Indexed by stones on the board so no node allocates
+    private final long[][] moveBuffer = new long[CELLS][WIDTH];
+    private final int[][] scoreBuffer = new int[CELLS][WIDTH];
+    private long nodes;
+    
+    public Solver(int transpositionTableMegabytes) {
+        this(new TranspositionTable(transpositionTableMegabytes));
+    }
+    
+    /**
+     * @param table used by this solver alone; its entries are exact bounds, not heuristic scores
+     */
+    Solver(TranspositionTable table) {
+        this.table = table;
+    }
+    
+    private static long bottomMask() {
+        long mask = 0;
+        for (int col = 0; col < WIDTH; col++) {
+            mask |= 1L << (col * H1);
+        }
+        return mask;
+    }
+    
+    /**
+     * Solves the position for the side to move and picks a move that
+     * achieves the best score. The board is not modified.
+     */
+    public Solution solve(GameBoard board) {
+        return solve(board, null);
+    }
+    
+    /**
+     * Like {@link #solve(GameBoard)}, but gives up once {@code stopSignal} is
+     * set, returning the best move found so far.
+     */
+    Solution solve(GameBoard board, AtomicBoolean stopSignal) {
+        return solve(board, stopSignal, 0);
+    }
+    
+    /**
+     * Like {@link #solve(GameBoard, AtomicBoolean)}, but also gives up at
+     * {@code deadline} ({@link System#nanoTime()}, 0 for none). Until a
+     * column is solved the best move is -1; {@link #isAborted()} tells
+     * whether the result is exact.
+     */
+    Solution solve(GameBoard board, AtomicBoolean stopSignal, long deadline) {
+        this.stopSignal = stopSignal;
+        this.deadline = deadline;
+        BitBoard bits = board.getBitBoard();
+        long mask = bits.getOccupiedMask();
+        long position = bits.getMask(board.getCurrentPlayer());
+        int moves = bits.getMoveCount();
+        table.newSearch();
+        stopped = false;
+        
+        long winning = winningPosition(position, mask) & possible(mask);
+        for (int col : COLUMN_ORDER) {
+            if ((winning & columnMask(col)) != 0) {
+                int score = (CELLS + 1 - moves) / 2;
+                return new Solution(score, col, Outcome.WIN, 1);
+            }
+        }
+        
+        int bestMove = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int col : COLUMN_ORDER) {
+            if (!canPlay(mask, col)) continue;
+            
+            long move = (mask + bottomMaskCol(col)) & columnMask(col);
+            int score;
+            if (moves + 1 == CELLS) {
+                score = 0;
+            } else {
+                score = -solve(position ^ mask, mask | move, moves + 1);
+                if (stopped) break;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = col;
+            }
+        }
+        
+        if (bestMove < 0) {
+            return new Solution(0, -1, Outcome.DRAW, 0);
+        }
+        return new Solution(bestScore, bestMove, outcomeOf(bestScore), pliesToEnd(bestScore, moves));
+    }
+    
+    /**
+     * Score of the position alone, without choosing a move.
+     */
+    public int score(GameBoard board) {
+        BitBoard bits = board.getBitBoard();
+        table.newSearch();
+        stopSignal = null;
+        deadline = 0;
+        stopped = false;
+        return solve(bits.getMask(board.getCurrentPlayer()), bits.getOccupiedMask(), bits.getMoveCount());
+    }
+    
+    private int solve(long position, long mask, int moves) {
+        if (canWinNext(position, mask)) {
+            return (CELLS + 1 - moves) / 2;
+        }
+        int min = -(CELLS - moves) / 2;
+        int max = (CELLS + 1 - moves) / 2;
+        
+        // Dichotomic null-window searches, biased towards 0 where most values lie
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) {
+                med = min / 2;
+            } else if (med >= 0 && max / 2 > med) {
+                med = max / 2;
+            }
+            int result = negamax(position, mask, moves, med, med + 1);
+            if (stopped) break;
+            if (result <= med) {
+                max = result;
+            } else {
+                min = result;
+            }
+        }
+        return min;
+    }
+    
+    /**
+     * Null-window capable negamax. Assumes the side to move cannot win immediately.
+     */
+    private int negamax(long position, long mask, int moves, int alpha, int beta) {
+        if ((++nodes & STOP_CHECK_MASK) == 0 && (stopSignal != null && stopSignal.get()
+                || deadline != 0 && System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        
+        long next = possibleNonLosingMoves(position, mask);
+        if (next == 0) {
+            return -(CELLS - moves) / 2;
+        }
+        if (moves >= CELLS - 2) {
+            return 0;
+        }
+        
+        int min = -(CELLS - 2 - moves) / 2;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) return alpha;
+        }
+        int max = (CELLS - 1 - moves) / 2;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+        
+        // Mirror images have the same value, so they share an entry
+        long key = position + mask;
+        key = Math.min(key, BitBoard.mirror(key));
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            int stored = TranspositionTable.score(entry);
+            if (TranspositionTable.flag(entry) == TranspositionTable.LOWER_BOUND) {
+                if (alpha < stored) {
+                    alpha = stored;
+                    if (alpha >= beta) return alpha;
+                }
+            } else if (beta > stored) {
+                beta = stored;
+                if (alpha >= beta) return beta;
+            }
+        }
+        
+        // Threats created first, then center-first; ties keep the column order
+        long[] candidates = moveBuffer[moves];
+        int[] scores = scoreBuffer[moves];
+        int count = 0;
+        for (int i = WIDTH - 1; i >= 0; i--) {
+            long move = next & columnMask(COLUMN_ORDER[i]);
+            if (move == 0) continue;
+            
+            int score = Long.bitCount(winningPosition(position | move, mask));
+            int j = count++;
+            while (j > 0 && scores[j - 1] > score) {
+                candidates[j] = candidates[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            candidates[j] = move;
+            scores[j] = score;
+        }
+        
+        for (int i = count - 1; i >= 0; i--) {
+            long move = candidates[i];
+            int score = -negamax(position ^ mask, mask | move, moves + 1, -beta, -alpha);
+            // An abandoned subtree's score is meaningless, so it must not reach the table
+            if (stopped) return 0;
+            if (score >= beta) {
+                table.store(key, 0, TranspositionTable.LOWER_BOUND, score, -1);
+                return score;
+            }
+            if (score > alpha) alpha = score;
+        }
+        
+        table.store(key, 0, TranspositionTable.UPPER_BOUND, alpha, -1);
+        return alpha;
+    }
+    
+    private static boolean canPlay(long mask, int col) {
+        return (mask & topMaskCol(col)) == 0;
+    }
+    
+    private static boolean canWinNext(long position, long mask) {
+        return (winningPosition(position, mask) & possible(mask)) != 0;
+    }
+    
+    static long possible(long mask) {
+        return (mask + BOTTOM_MASK) & BOARD_MASK;
+    }
+    
+    /**
+     * Playable cells that do not let the opponent win on the next move. If
+     * the opponent has two immediate threats there are none.
+     */
+    private static long possibleNonLosingMoves(long position, long mask) {
+        long possible = possible(mask);
+        long opponentWin = winningPosition(position ^ mask, mask);
+        long forced = possible & opponentWin;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return 0;
+            }
+            possible = forced;
+        }
+        // Never play directly below a cell where the opponent would win
+        return possible & ~(opponentWin >>> 1);
+    }
+    
+    /**
+     * Empty cells that would complete four for the owner of {@code position}.
+     */
+    static long winningPosition(long position, long mask) {
+        // vertical
+        long r = (position << 1) & (position << 2) & (position << 3);
+        
+        r |= lineThreats(position, H1);     // horizontal
+        r |= lineThreats(position, H1 - 1); // diagonal, down-right
+        r |= lineThreats(position, H1 + 1); // diagonal, up-right
+        return r & (BOARD_MASK ^ mask);
+    }
+    
+    private static long lineThreats(long position, int shift) {
+        long p = (position << shift) & (position << 2 * shift);
+        long r = p & (position << 3 * shift);
+        r |= p & (position >>> shift);
+        p = (position >>> shift) & (position >>> 2 * shift);
+        r |= p & (position << shift);
+        r |= p & (position >>> 3 * shift);
+        return r;
+    }
+    
+    private static long topMaskCol(int col) {
+        return 1L << (HEIGHT - 1 + col * H1);
+    }
+    
+    private static long bottomMaskCol(int col) {
+        return 1L << (col * H1);
+    }
+    
+    private static long columnMask(int col) {
+        return ((1L << HEIGHT) - 1) << (col * H1);
+    }
+    
+    private static Outcome outcomeOf(int score) {
+        return score > 0 ? Outcome.WIN : score < 0 ? Outcome.LOSS : Outcome.DRAW;
+    }
+    
+    /**
+     * Converts a score back into the number of plies until the game ends.
+     */
+    static int pliesToEnd(int score, int moves) {
+        if (score > 0) {
+            int stones = (CELLS + 1 - moves) / 2 - score + 1;
+            return 2 * stones - 1;
+        }
+        if (score < 0) {
+            int stones = (CELLS - moves) / 2 + score + 1;
+            return 2 * stones;
+        }
+        return CELLS - moves;
+    }
+    
+    /**
+     * Whether the last solve was abandoned through the stop signal, making its result meaningless.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+    
+    void clearTable() {
+        table.clear();
+    }
+    
+    /**
+     * Whether the last solve was stopped before it finished.
+     */
+    boolean isAborted() {
+        return stopped;
+    }
+    
+    public long getNodeCount() {
+        return nodes;
+    }
+    
+    public void resetNodeCount() {
+        nodes = 0;
+    }
+}
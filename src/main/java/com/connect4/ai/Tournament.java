@@ -0,0 +1,300 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Headless self-play between engine configurations, for measuring whether a
+ * change makes an engine stronger.
+ *
+ * Every pair of entrants plays each opening twice, once from either side.
+ * The openings are random positions a few plies deep, all distinct up to
+ * mirroring, so deterministic engines never replay the same game. Games are
+ * played on the standard board unless the tournament is given another shape,
+ * e.g. to tune engines for the larger board sizes. Games run
+ * in parallel on a fixed pool. Each pool thread keeps its own engine per
+ * entrant and runs it single-threaded, since the games already use every core.
+ * With that many engines alive at once, each gets a smaller table than its
+ * configuration asks for, so that all of them together use at most a quarter
+ * of the heap. Entrants can differ in their {@link EvaluationWeights} alone,
+ * to tune the evaluation.
+ *
+ * Usage: {@code java com.connect4.ai.Tournament [openings per pair] [opening plies] [engine name...]}.
+ * An engine name followed by {@code @center,three,two}, e.g. {@code Hard@3,6,2},
+ * enters that engine with those evaluation weights.
+ */
+public class Tournament {
+    private static final int DEFAULT_OPENINGS = 50;
+    private static final int DEFAULT_OPENING_PLIES = 4;
+    private static final List<String> DEFAULT_ENTRANTS = List.of("Easy", "Medium", "Hard");
+    private static final int ATTEMPTS_PER_OPENING = 100;
+    private static final int HEAP_SHARE = 4;
+    
+    /**
+     * One finished game. Entrants are indices into the tournament's entrant
+     * list, and {@code winner} is -1 for a draw.
+     *
+     * @param first entrant playing player 1, including the opening moves
+     */
+    public record GameRecord(int first, int second, int opening, int winner, int plies,
+                             long firstThinkNanos, int firstMoves, long secondThinkNanos, int secondMoves) { }
+    
+    private final List<EngineConfig> entrants;
+    private final EngineRegistry registry;
+    private final List<int[]> openings;
+    private final GameBoard emptyBoard;
+    private final int threads;
+    
+    /**
+     * @param openingBook book for the entrants that use one, or null
+     * @param seed        seed for the random openings, so a tournament can be replayed
+     */
+    public Tournament(List<EngineConfig> entrants, Path openingBook, int openingsPerPair, int openingPlies,
+                      int threads, long seed) {
+        this(entrants, openingBook, openingsPerPair, openingPlies, threads, seed,
+             GameBoard.ROWS, GameBoard.COLS, GameBoard.CONNECT);
+    }
+    
+    /**
+     * Plays on a board of {@code rows} by {@code cols} where {@code connect}
+     * in a line wins. The opening book only applies to the standard board.
+     */
+    public Tournament(List<EngineConfig> entrants, Path openingBook, int openingsPerPair, int openingPlies,
+                      int threads, long seed, int rows, int cols, int connect) {
+        if (entrants.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two entrants");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, got " + threads);
+        }
+        this.entrants = List.copyOf(entrants);
+        this.registry = new EngineRegistry(openingBook);
+        long tableBudget = Runtime.getRuntime().maxMemory() / HEAP_SHARE / ((long) threads * entrants.size());
+        Set<String> names = new HashSet<>();
+        for (EngineConfig config : entrants) {
+            if (!names.add(config.name())) {
+                throw new IllegalArgumentException("Duplicate entrant: " + config.name());
+            }
+            // The solver keeps a table of its own next to the search's
+            int tables = config.kind() == EngineConfig.Kind.SOLVER ? 2 : 1;
+            int tableMegabytes = (int) Math.max(1, Math.min(config.tableMegabytes(),
+                                                            tableBudget / tables / (1024 * 1024)));
+            registry.register(new EngineConfig(config.name(), config.level(), config.kind(), config.depth(),
+                                               config.timeBudget(), 1, tableMegabytes, config.openingBook(),
+                                               config.weights()));
+        }
+        this.emptyBoard = new GameBoard(rows, cols, connect);
+        this.openings = randomOpenings(openingsPerPair, openingPlies, emptyBoard, new Random(seed));
+        this.threads = threads;
+    }
+    
+    public List<String> getNames() {
+        return entrants.stream().map(EngineConfig::name).toList();
+    }
+    
+    public int getGameCount() {
+        int n = entrants.size();
+        return n * (n - 1) / 2 * openings.size() * 2;
+    }
+    
+    /**
+     * Moves of each opening, indexed by {@link GameRecord#opening()}.
+     */
+    public List<int[]> getOpenings() {
+        return Collections.unmodifiableList(openings);
+    }
+    
+    public TournamentResult run() {
+        return run(game -> { });
+    }
+    
+    /**
+     * Plays every game and returns the totals. {@code listener} hears about
+     * each finished game on the pool thread that played it.
+     */
+    public TournamentResult run(Consumer<GameRecord> listener) {
+        TournamentResult result = new TournamentResult(getNames());
+        List<AIEngine> created = Collections.synchronizedList(new ArrayList<>());
+        ThreadLocal<AIEngine[]> engines = ThreadLocal.withInitial(() -> new AIEngine[entrants.size()]);
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<Future<?>> games = new ArrayList<>(getGameCount());
+            for (int a = 0; a < entrants.size(); a++) {
+                for (int b = a + 1; b < entrants.size(); b++) {
+                    for (int opening = 0; opening < openings.size(); opening++) {
+                        for (int swap = 0; swap < 2; swap++) {
+                            int first = swap == 0 ? a : b;
+                            int second = swap == 0 ? b : a;
+                            int index = opening;
+                            games.add(pool.submit(() -> {
+                                AIEngine[] own = engines.get();
+                                GameRecord game = play(engine(own, first, created), engine(own, second, created),
+                                                       first, second, index);
+                                result.record(game);
+                                listener.accept(game);
+                            }));
+                        }
+                    }
+                }
+            }
+            for (Future<?> game : games) {
+                game.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            created.forEach(AIEngine::shutdown);
+        }
+        return result;
+    }
+    
+    private AIEngine engine(AIEngine[] own, int entrant, List<AIEngine> created) {
+        if (own[entrant] == null) {
+            own[entrant] = registry.create(entrants.get(entrant).name());
+            created.add(own[entrant]);
+        }
+        return own[entrant];
+    }
+    
+    private GameRecord play(AIEngine firstEngine, AIEngine secondEngine, int first, int second, int opening) {
+        firstEngine.newGame();
+        secondEngine.newGame();
+        GameBoard board = new GameBoard(emptyBoard);
+        for (int col : openings.get(opening)) {
+            board.makeMove(col);
+        }
+        
+        long[] thinkNanos = new long[2];
+        int[] moves = new int[2];
+        int winner = -1;
+        while (!board.isBoardFull()) {
+            int side = board.getCurrentPlayer() - 1;
+            AIEngine engine = side == 0 ? firstEngine : secondEngine;
+            long start = System.nanoTime();
+            int col = engine.getBestMove(board);
+            thinkNanos[side] += System.nanoTime() - start;
+            moves[side]++;
+            if (col < 0 || col >= board.getCols() || board.isColumnFull(col)) {
+                String name = entrants.get(side == 0 ? first : second).name();
+                throw new IllegalStateException(name + " played illegal column " + col);
+            }
+            
+            board.makeMove(col);
+            if (board.isLastMoveWin()) {
+                winner = side == 0 ? first : second;
+                break;
+            }
+        }
+        return new GameRecord(first, second, opening, winner, board.getMoveCount(),
+                              thinkNanos[0], moves[0], thinkNanos[1], moves[1]);
+    }
+    
+    /**
+     * {@code count} random openings of {@code plies} moves that neither end
+     * the game nor repeat an earlier opening or its mirror image.
+     *
+     * @throws IllegalArgumentException if that many distinct openings could not be found
+     */
+    static List<int[]> randomOpenings(int count, int plies, Random random) {
+        return randomOpenings(count, plies, new GameBoard(), random);
+    }
+    
+    /**
+     * Like {@link #randomOpenings(int, int, Random)}, played from {@code emptyBoard}.
+     */
+    static List<int[]> randomOpenings(int count, int plies, GameBoard emptyBoard, Random random) {
+        if (count < 1 || plies < 0 || plies >= emptyBoard.getRows() * emptyBoard.getCols()) {
+            throw new IllegalArgumentException("Invalid openings: " + count + " of " + plies + " plies");
+        }
+        List<int[]> openings = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (int attempt = 0; openings.size() < count && attempt < count * ATTEMPTS_PER_OPENING; attempt++) {
+            GameBoard board = new GameBoard(emptyBoard);
+            int[] moves = new int[plies];
+            boolean finished = false;
+            for (int i = 0; i < plies && !finished; i++) {
+                int col;
+                do {
+                    col = random.nextInt(board.getCols());
+                } while (board.isColumnFull(col));
+                board.makeMove(col);
+                moves[i] = col;
+                finished = board.isLastMoveWin();
+            }
+            if (!finished && seen.add(board.getCanonicalKey())) {
+                openings.add(moves);
+            }
+        }
+        if (openings.size() < count) {
+            throw new IllegalArgumentException("Found only " + openings.size() + " distinct openings of "
+                                               + plies + " plies, wanted " + count);
+        }
+        return openings;
+    }
+    
+    public static void main(String[] args) {
+        int openings = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPENINGS;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_OPENING_PLIES;
+        List<String> names = args.length > 2 ? List.of(args).subList(2, args.length) : DEFAULT_ENTRANTS;
+        
+        EngineRegistry defaults = EngineRegistry.withDefaults(EngineRegistry.DEFAULT_OPENING_BOOK);
+        List<EngineConfig> entrants = names.stream().map(name -> entrant(defaults, name)).toList();
+        long seed = new Random().nextLong();
+        Tournament tournament = new Tournament(entrants, EngineRegistry.DEFAULT_OPENING_BOOK, openings, plies,
+                                               Runtime.getRuntime().availableProcessors(), seed);
+        int total = tournament.getGameCount();
+        System.out.println("Playing " + total + " games, opening seed " + seed);
+        
+        AtomicInteger finished = new AtomicInteger();
+        TournamentResult result = tournament.run(game -> {
+            int done = finished.incrementAndGet();
+            if (done % 100 == 0) {
+                System.out.println("Played " + done + " of " + total + " games");
+            }
+        });
+        System.out.print(result.format());
+    }
+    
+    /**
+     * The configuration named by {@code spec}, with the weights after an {@code @} if there are any.
+     */
+    static EngineConfig entrant(EngineRegistry registry, String spec) {
+        int at = spec.indexOf('@');
+        if (at < 0) {
+            return registry.getConfig(spec);
+        }
+        EngineConfig config = registry.getConfig(spec.substring(0, at));
+        String[] values = spec.substring(at + 1).split(",");
+        if (values.length != 3) {
+            throw new IllegalArgumentException("Expected center,three,two weights in " + spec);
+        }
+        EvaluationWeights weights = new EvaluationWeights(Integer.parseInt(values[0].trim()),
+                                                          Integer.parseInt(values[1].trim()),
+                                                          Integer.parseInt(values[2].trim()));
+        return new EngineConfig(spec, config.level(), config.kind(), config.depth(), config.timeBudget(),
+                                config.threads(), config.tableMegabytes(), config.openingBook(), weights);
+    }
+}
@@ -0,0 +1,191 @@
+package com.connect4.ai;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Totals of a {@link Tournament}: results per pairing, think time per
+ * entrant and Elo ratings fitted to every game. Entrants are indices into
+ * {@link #getNames()}.
+ */
+public class TournamentResult {
+    private static final double Z_95 = 1.96;
+    private static final double ELO_PER_NATURAL_UNIT = 400 / Math.log(10);
+    private static final int RATING_ITERATIONS = 1000;
+    
+    /**
+     * @param margin half-width of the 95% confidence interval, in Elo
+     */
+    public record Rating(String name, double elo, double margin) { }
+    
+    private final List<String> names;
+    // wins[a][b] counts the games a won against b
+    private final int[][] wins;
+    private final int[][] draws;
+    private final long[] thinkNanos;
+    private final long[] moves;
+    private int games;
+    
+    TournamentResult(List<String> names) {
+        this.names = List.copyOf(names);
+        int n = names.size();
+        this.wins = new int[n][n];
+        this.draws = new int[n][n];
+        this.thinkNanos = new long[n];
+        this.moves = new long[n];
+    }
+    
+    synchronized void record(Tournament.GameRecord game) {
+        int first = game.first();
+        int second = game.second();
+        if (game.winner() < 0) {
+            draws[first][second]++;
+            draws[second][first]++;
+        } else {
+            wins[game.winner()][game.winner() == first ? second : first]++;
+        }
+        thinkNanos[first] += game.firstThinkNanos();
+        moves[first] += game.firstMoves();
+        thinkNanos[second] += game.secondThinkNanos();
+        moves[second] += game.secondMoves();
+        games++;
+    }
+    
+    public List<String> getNames() {
+        return names;
+    }
+    
+    public synchronized int getGames() {
+        return games;
+    }
+    
+    public synchronized int getWins(int entrant, int opponent) {
+        return wins[entrant][opponent];
+    }
+    
+    public synchronized int getDraws(int entrant, int opponent) {
+        return draws[entrant][opponent];
+    }
+    
+    public synchronized int getLosses(int entrant, int opponent) {
+        return wins[opponent][entrant];
+    }
+    
+    /**
+     * Points per game against the whole field, from 0 to 1.
+     */
+    public synchronized double getScore(int entrant) {
+        double points = 0;
+        int played = 0;
+        for (int opponent = 0; opponent < names.size(); opponent++) {
+            points += wins[entrant][opponent] + 0.5 * draws[entrant][opponent];
+            played += wins[entrant][opponent] + draws[entrant][opponent] + wins[opponent][entrant];
+        }
+        return played == 0 ? 0 : points / played;
+    }
+    
+    public synchronized Duration getAverageThinkTime(int entrant) {
+        return moves[entrant] == 0 ? Duration.ZERO : Duration.ofNanos(thinkNanos[entrant] / moves[entrant]);
+    }
+    
+    /**
+     * Elo ratings averaging zero, fitted by maximum likelihood under the
+     * Bradley-Terry model with a draw worth half a win to each side. One
+     * virtual draw per pairing keeps the ratings finite when an entrant won
+     * or lost every game. The margins come from the curvature of the
+     * likelihood, so they are only approximate for small samples.
+     */
+    public synchronized List<Rating> getRatings() {
+        int n = names.size();
+        double[][] points = new double[n][n];
+        int[][] played = new int[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                int pairGames = wins[a][b] + draws[a][b] + wins[b][a];
+                if (a == b || pairGames == 0) continue;
+                played[a][b] = pairGames + 1;
+                points[a][b] = wins[a][b] + 0.5 * draws[a][b] + 0.5;
+            }
+        }
+        
+        // Minorization-maximization iterations on the strengths exp(elo / ELO_PER_NATURAL_UNIT)
+        double[] strength = new double[n];
+        Arrays.fill(strength, 1);
+        for (int iteration = 0; iteration < RATING_ITERATIONS; iteration++) {
+            double[] next = new double[n];
+            double logSum = 0;
+            for (int a = 0; a < n; a++) {
+                double total = 0;
+                double denominator = 0;
+                for (int b = 0; b < n; b++) {
+                    if (played[a][b] == 0) continue;
+                    total += points[a][b];
+                    denominator += played[a][b] / (strength[a] + strength[b]);
+                }
+                next[a] = denominator > 0 ? total / denominator : strength[a];
+                logSum += Math.log(next[a]);
+            }
+            double mean = Math.exp(logSum / n);
+            for (int a = 0; a < n; a++) {
+                strength[a] = next[a] / mean;
+            }
+        }
+        
+        List<Rating> ratings = new ArrayList<>(n);
+        for (int a = 0; a < n; a++) {
+            double information = 0;
+            for (int b = 0; b < n; b++) {
+                if (played[a][b] == 0) continue;
+                double expected = strength[a] / (strength[a] + strength[b]);
+                information += played[a][b] * expected * (1 - expected);
+            }
+            double margin = information > 0 ? Z_95 * ELO_PER_NATURAL_UNIT / Math.sqrt(information)
+                                             : Double.POSITIVE_INFINITY;
+            ratings.add(new Rating(names.get(a), ELO_PER_NATURAL_UNIT * Math.log(strength[a]), margin));
+        }
+        return ratings;
+    }
+    
+    /**
+     * Plain-text report: wins-draws-losses of each row against each column,
+     * then the ratings, scores and average think times.
+     */
+    public synchronized String format() {
+        int n = names.size();
+        int width = "Entrant".length();
+        for (String name : names) {
+            width = Math.max(width, name.length());
+        }
+        String nameColumn = "%-" + (width + 2) + "s";
+        String cellColumn = "%-" + Math.max(width + 2, 12) + "s";
+        
+        StringBuilder report = new StringBuilder();
+        report.append(games).append(" games, wins-draws-losses of row against column\n");
+        report.append(String.format(nameColumn, ""));
+        for (String name : names) {
+            report.append(String.format(cellColumn, name));
+        }
+        report.append('\n');
+        for (int a = 0; a < n; a++) {
+            report.append(String.format(nameColumn, names.get(a)));
+            for (int b = 0; b < n; b++) {
+                String cell = a == b ? "-" : wins[a][b] + "-" + draws[a][b] + "-" + wins[b][a];
+                report.append(String.format(cellColumn, cell));
+            }
+            report.append('\n');
+        }
+        
+        report.append('\n').append(String.format(nameColumn, "Entrant"))
+              .append(String.format("%8s %8s %7s %12s%n", "Elo", "+/-95%", "Score", "Think/move"));
+        List<Rating> ratings = getRatings();
+        for (int a = 0; a < n; a++) {
+            Rating rating = ratings.get(a);
+            report.append(String.format(nameColumn, rating.name()))
+                  .append(String.format("%+8.0f %8.0f %6.1f%% %9.1f ms%n", rating.elo(), rating.margin(),
+                                        100 * getScore(a), getAverageThinkTime(a).toNanos() / 1e6));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.connect4.ai;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table backed by two parallel long arrays, sized
+ * from a memory budget up front so probing and storing never allocate.
+ *
+ * Each slot holds one packed data word and the position key XORed with it:
+ * bits 0-31 score, 32-39 depth, 40-41 bound type, 42-47 best move + 1,
+ * 48-55 search generation. Replacement prefers the deeper entry, but entries
+ * left over from an earlier search can always be overwritten. The searches
+ * use {@link com.connect4.model.GameBoard#getCanonicalKey()}, so a position
+ * and its mirror image share a slot.
+ *
+ * The table is shared by search threads without locking. A slot written by
+ * two threads at once can end up with the key of one and the data of the
+ * other, but then the XOR no longer reproduces the probed key and the probe
+ * is simply a miss. Callers must still check a stored best move is legal.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+    public static final long MISS = 0L;
+    
+    private static final int BYTES_PER_ENTRY = 16;
+    
+    private final long[] keys;
+    private final long[] data;
+    private final int indexMask;
+    private int generation;
+    
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got " + megabytes);
+        }
+        long entries = ((long) megabytes << 20) / BYTES_PER_ENTRY;
+        int capacity = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[capacity];
+        data = new long[capacity];
+        indexMask = capacity - 1;
+    }
+    
+    /**
+     * Returns the packed entry for {@code key}, or {@link #MISS}.
+     */
+    public long probe(long key) {
+        int index = indexOf(key);
+        long entry = data[index];
+        return entry != MISS && (keys[index] ^ entry) == key ? entry : MISS;
+    }
+    
+    public void store(long key, int depth, int flag, int score, int bestMove) {
+        int index = indexOf(key);
+        long existing = data[index];
+        if (existing != MISS && (keys[index] ^ existing) != key
+                && generation(existing) == generation && depth(existing) > depth) {
+            return;
+        }
+        long entry = pack(depth, flag, score, bestMove, generation);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+    
+    /**
+     * Marks the start of a new search so older entries lose their replacement priority.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, MISS);
+        generation = 0;
+    }
+    
+    public int getCapacity() {
+        return keys.length;
+    }
+    
+    private int indexOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & indexMask;
+    }
+    
+    static long pack(int depth, int flag, int score, int bestMove, int generation) {
+        return (score & 0xFFFFFFFFL)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) flag << 40)
+                | ((long) ((bestMove + 1) & 0x3F) << 42)
+                | ((long) generation << 48);
+    }
+    
+    public static int score(long entry) {
+        return (int) entry;
+    }
+    
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+    
+    public static int flag(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+    
+    public static int bestMove(long entry) {
+        return ((int) (entry >>> 42) & 0x3F) - 1;
+    }
+    
+    static int generation(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+}
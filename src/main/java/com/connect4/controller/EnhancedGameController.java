@@ -1,6 +1,8 @@
 package com.connect4.controller;
 
-import com.connect4.ai.MinimaxAI;
+import com.connect4.ai.AIEngine;
+import com.connect4.ai.AIMoveService;
+import com.connect4.ai.EngineRegistry;
 import com.connect4.model.GameBoard;
 import com.connect4.model.GameState;
 import com.connect4.service.GameStateService;
@@ -17,12 +19,16 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
-import javafx.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 public class EnhancedGameController {
+    private static final Logger logger = LoggerFactory.getLogger(EnhancedGameController.class);
+    
     
     @FXML private VBox mainContainer;
     @FXML private GridPane gameGrid;
@@ -45,7 +51,10 @@ public class EnhancedGameController {
     
     private GameBoard gameBoard;
     private Circle[][] circles;
-    private MinimaxAI ai;
+    private AIEngine ai;
+    private final EngineRegistry engineRegistry = EngineRegistry.withDefaults(EngineRegistry.DEFAULT_OPENING_BOOK);
+    // Searches off the FX thread; the old fixed 1 s pause is now a minimum think time
+    private final AIMoveService aiMoveService = new AIMoveService(Platform::runLater, java.time.Duration.ofSeconds(1));
     private GameStateService gameStateService;
     private GameStatistics gameStatistics;
     private EnhancedSettings settings;
@@ -55,7 +64,7 @@ public class EnhancedGameController {
     private int player1Score = 0;
     private int player2Score = 0;
     private String currentGameMode = "Human vs Human";
-    private int currentDifficulty = 2;
+    private String currentDifficulty = "Medium";
     private boolean isAiTurn = false;
     private long gameStartTime;
     private int moveCount = 0;
@@ -75,13 +84,19 @@ public class EnhancedGameController {
     }
     
     private void initializeGame() {
-        gameBoard = new GameBoard();
-        circles = new Circle[GameBoard.ROWS][GameBoard.COLS];
-        ai = new MinimaxAI(currentDifficulty);
+        createBoard();
+        ai = engineRegistry.create(currentDifficulty);
         gameStateService = new GameStateService();
+    }
+    
+    private void createBoard() {
+        EnhancedSettings.BoardSize size = settings.getBoardSize();
+        gameBoard = new GameBoard(size.getRows(), size.getCols(), GameBoard.CONNECT);
+        circles = new Circle[size.getRows()][size.getCols()];
         
         // Initialize column usage tracking
-        for (int i = 0; i < GameBoard.COLS; i++) {
+        columnUsage.clear();
+        for (int i = 0; i < size.getCols(); i++) {
             columnUsage.put(i, 0);
         }
     }
@@ -96,8 +111,8 @@ public class EnhancedGameController {
     private void initializeBoardUI() {
         gameGrid.getChildren().clear();
         
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS; col++) {
+        for (int row = 0; row < gameBoard.getRows(); row++) {
+            for (int col = 0; col < gameBoard.getCols(); col++) {
                 Circle circle = createEnhancedCircle();
                 circles[row][col] = circle;
                 gameGrid.add(circle, col, row);
@@ -121,9 +136,9 @@ public class EnhancedGameController {
     
     private void initializeHoverEffects() {
         // Hover preview functionality
-        for (int col = 0; col < GameBoard.COLS; col++) {
+        for (int col = 0; col < gameBoard.getCols(); col++) {
             final int column = col;
-            for (int row = 0; row < GameBoard.ROWS; row++) {
+            for (int row = 0; row < gameBoard.getRows(); row++) {
                 Circle circle = circles[row][col];
                 circle.setOnMouseEntered(event -> {
                     if (!gameBoard.isColumnFull(column)) {
@@ -149,8 +164,8 @@ public class EnhancedGameController {
         gameModeComboBox.setValue(currentGameMode);
         gameModeComboBox.setOnAction(event -> handleGameModeChange());
         
-        difficultyComboBox.getItems().addAll("Easy", "Medium", "Hard", "Expert");
-        difficultyComboBox.setValue("Medium");
+        difficultyComboBox.getItems().addAll(engineRegistry.getNames());
+        difficultyComboBox.setValue(currentDifficulty);
         difficultyComboBox.setOnAction(event -> handleDifficultyChange());
         
         themeComboBox.getItems().addAll(EnhancedThemeManager.Theme.values());
@@ -226,16 +241,22 @@ public class EnhancedGameController {
             
             animatePieceDrop(col);
             
-            if (gameBoard.checkWin(gameBoard.getCurrentPlayer())) {
+            if (gameBoard.isLastMoveWin()) {
                 handleWin();
             } else if (gameBoard.isBoardFull()) {
                 handleDraw();
             } else {
                 gameBoard.switchPlayer();
                 updatePlayerTurnLabel();
+                // Only a game still in progress is worth resuming
+                gameStateService.autoSave(gameBoard, player1Score, player2Score, currentGameMode,
+                                          engineRegistry.getConfig(currentDifficulty).level());
                 
                 if (currentGameMode.equals("Human vs AI") && gameBoard.getCurrentPlayer() == 2) {
                     handleAIMove();
+                } else if (currentGameMode.equals("Human vs AI")) {
+                    // Think about the human's reply while waiting for it
+                    aiMoveService.ponder(ai, gameBoard);
                 } else if (currentGameMode.equals("AI vs AI")) {
                     handleAIMove();
                 }
@@ -250,16 +271,45 @@ public class EnhancedGameController {
         animationManager.animatePieceDrop(circle, getPieceColor(gameBoard.getPiece(row, col)));
     }
     
+    /**
+     * Stops any search and writes the autosaves still queued, before the
+     * application exits.
+     */
+    public void shutdown() {
+        aiMoveService.shutdown();
+        gameStateService.close();
+    }
+    
     private void handleAIMove() {
         isAiTurn = true;
         
-        PauseTransition pause = new PauseTransition(Duration.millis(1000));
-        pause.setOnFinished(event -> {
-            int aiMove = ai.getBestMove(gameBoard);
-            makeMove(aiMove);
+        aiMoveService.requestMove(ai, gameBoard).whenComplete((aiMove, error) -> {
+            // A cancelled request was abandoned by a reset or a newer request
+            if (error instanceof CancellationException) return;
             isAiTurn = false;
+            if (error == null) {
+                makeMove(aiMove);
+                return;
+            }
+            logger.error("AI move failed, playing a fallback move", error);
+            int fallback = firstOpenColumn();
+            if (fallback >= 0) {
+                makeMove(fallback);
+            } else {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Error");
+                alert.setHeaderText("AI failed to move");
+                alert.setContentText(error.getMessage());
+                alert.showAndWait();
+            }
         });
-        pause.play();
+    }
+    
+    private int firstOpenColumn() {
+        for (int col = 0; col < gameBoard.getCols(); col++) {
+            if (!gameBoard.isColumnFull(col)) return col;
+        }
+        return -1;
     }
     
     private void handleWin() {
@@ -293,8 +343,8 @@ public class EnhancedGameController {
     }
     
     private void updateBoardUI() {
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS; col++) {
+        for (int row = 0; row < gameBoard.getRows(); row++) {
+            for (int col = 0; col < gameBoard.getCols(); col++) {
                 int piece = gameBoard.getPiece(row, col);
                 Color color = getPieceColor(piece);
                 circles[row][col].setFill(color);
@@ -326,15 +376,11 @@ public class EnhancedGameController {
     }
     
     private void handleDifficultyChange() {
-        String difficulty = difficultyComboBox.getValue();
-        currentDifficulty = switch (difficulty) {
-            case "Easy" -> 1;
-            case "Medium" -> 2;
-            case "Hard" -> 3;
-            case "Expert" -> 4;
-            default -> 2;
-        };
-        ai.setDifficulty(currentDifficulty);
+        currentDifficulty = difficultyComboBox.getValue();
+        aiMoveService.cancel();
+        isAiTurn = false;
+        aiMoveService.retire(ai);
+        ai = engineRegistry.create(currentDifficulty);
     }
     
     private String getDifficultyString() {
@@ -361,12 +407,23 @@ public class EnhancedGameController {
     }
     
     private void resetGame() {
-        gameBoard.reset();
+        aiMoveService.cancel();
+        isAiTurn = false;
+        EnhancedSettings.BoardSize size = settings.getBoardSize();
+        if (size.getRows() != gameBoard.getRows() || size.getCols() != gameBoard.getCols()) {
+            // The board size setting applies from the next game on
+            createBoard();
+            initializeBoardUI();
+            initializeHoverEffects();
+        } else {
+            gameBoard.reset();
+            columnUsage.replaceAll((k, v) -> 0);
+        }
         moveCount = 0;
-        columnUsage.replaceAll((k, v) -> 0);
         gameStartTime = System.currentTimeMillis();
         updateBoardUI();
         updatePlayerTurnLabel();
+        gameStateService.startNewGame();
     }
     
     private void newGame() {
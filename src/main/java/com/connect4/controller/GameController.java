@@ -1,21 +1,27 @@
 package com.connect4.controller;
 
-import com.connect4.ai.MinimaxAI;
+import com.connect4.ai.AIEngine;
+import com.connect4.ai.AIMoveService;
+import com.connect4.ai.EngineRegistry;
 import com.connect4.model.GameBoard;
 import com.connect4.model.GameState;
 import com.connect4.service.GameStateService;
 import com.connect4.util.AnimationManager;
-import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
 public class GameController {
+    private static final Logger logger = LoggerFactory.getLogger(GameController.class);
+    
     
     @FXML private GridPane gameGrid;
     @FXML private Label playerTurnLabel;
@@ -24,14 +30,17 @@ public class GameController {
     @FXML private Button resetButton;
     @FXML private Button newGameButton;
     @FXML private ComboBox<String> gameModeComboBox;
-    @FXML private ComboBox<Integer> difficultyComboBox;
+    @FXML private ComboBox<String> difficultyComboBox;
     @FXML private MenuItem saveGameMenuItem;
     @FXML private MenuItem loadGameMenuItem;
     @FXML private MenuItem undoMoveMenuItem;
     
     private GameBoard gameBoard;
     private Circle[][] circles;
-    private MinimaxAI ai;
+    private AIEngine ai;
+    private final EngineRegistry engineRegistry = EngineRegistry.withDefaults(EngineRegistry.DEFAULT_OPENING_BOOK);
+    // Searches off the FX thread; the old fixed 1 s pause is now a minimum think time
+    private final AIMoveService aiMoveService = new AIMoveService(Platform::runLater, java.time.Duration.ofSeconds(1));
     private GameStateService gameStateService;
     private int player1Score = 0;
     private int player2Score = 0;
@@ -41,8 +50,8 @@ public class GameController {
     
     public void initialize() {
         gameBoard = new GameBoard();
-        circles = new Circle[GameBoard.ROWS][GameBoard.COLS];
-        ai = new MinimaxAI(currentDifficulty);
+        circles = new Circle[gameBoard.getRows()][gameBoard.getCols()];
+        ai = engineRegistry.create(engineRegistry.getName(currentDifficulty));
         gameStateService = new GameStateService();
         
         initializeBoardUI();
@@ -53,8 +62,8 @@ public class GameController {
     private void initializeBoardUI() {
         gameGrid.getChildren().clear();
         
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS; col++) {
+        for (int row = 0; row < gameBoard.getRows(); row++) {
+            for (int col = 0; col < gameBoard.getCols(); col++) {
                 Circle circle = createCircle();
                 circles[row][col] = circle;
                 gameGrid.add(circle, col, row);
@@ -70,8 +79,8 @@ public class GameController {
         gameModeComboBox.setValue(currentGameMode);
         gameModeComboBox.setOnAction(event -> handleGameModeChange());
         
-        difficultyComboBox.getItems().addAll(1, 2, 3);
-        difficultyComboBox.setValue(currentDifficulty);
+        difficultyComboBox.getItems().addAll(engineRegistry.getNames());
+        difficultyComboBox.setValue(engineRegistry.getName(currentDifficulty));
         difficultyComboBox.setOnAction(event -> handleDifficultyChange());
     }
     
@@ -95,16 +104,21 @@ public class GameController {
         if (gameBoard.dropPiece(col)) {
             updateBoardUI();
             
-            if (gameBoard.checkWin(gameBoard.getCurrentPlayer())) {
+            if (gameBoard.isLastMoveWin()) {
                 handleWin();
             } else if (gameBoard.isBoardFull()) {
                 handleDraw();
             } else {
                 gameBoard.switchPlayer();
                 updatePlayerTurnLabel();
+                // Only a game still in progress is worth resuming
+                gameStateService.autoSave(gameBoard, player1Score, player2Score, currentGameMode, currentDifficulty);
                 
                 if (currentGameMode.equals("Human vs AI") && gameBoard.getCurrentPlayer() == 2) {
                     handleAIMove();
+                } else if (currentGameMode.equals("Human vs AI")) {
+                    // Think about the human's reply while waiting for it
+                    aiMoveService.ponder(ai, gameBoard);
                 } else if (currentGameMode.equals("AI vs AI")) {
                     handleAIMove();
                 }
@@ -112,21 +126,50 @@ public class GameController {
         }
     }
     
+    /**
+     * Stops any search and writes the autosaves still queued, before the
+     * application exits.
+     */
+    public void shutdown() {
+        aiMoveService.shutdown();
+        gameStateService.close();
+    }
+    
     private void handleAIMove() {
         isAiTurn = true;
         
-        PauseTransition pause = new PauseTransition(Duration.millis(1000));
-        pause.setOnFinished(event -> {
-            int aiMove = ai.getBestMove(gameBoard);
-            makeMove(aiMove);
+        aiMoveService.requestMove(ai, gameBoard).whenComplete((aiMove, error) -> {
+            // A cancelled request was abandoned by a reset or a newer request
+            if (error instanceof CancellationException) return;
             isAiTurn = false;
+            if (error == null) {
+                makeMove(aiMove);
+                return;
+            }
+            logger.error("AI move failed, playing a fallback move", error);
+            int fallback = firstOpenColumn();
+            if (fallback >= 0) {
+                makeMove(fallback);
+            } else {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Error");
+                alert.setHeaderText("AI failed to move");
+                alert.setContentText(error.getMessage());
+                alert.showAndWait();
+            }
         });
-        pause.play();
+    }
+    
+    private int firstOpenColumn() {
+        for (int col = 0; col < gameBoard.getCols(); col++) {
+            if (!gameBoard.isColumnFull(col)) return col;
+        }
+        return -1;
     }
     
     private void updateBoardUI() {
-        for (int row = 0; row < GameBoard.ROWS; row++) {
-            for (int col = 0; col < GameBoard.COLS; col++) {
+        for (int row = 0; row < gameBoard.getRows(); row++) {
+            for (int col = 0; col < gameBoard.getCols(); col++) {
                 int piece = gameBoard.getPiece(row, col);
                 Color color = getPieceColor(piece);
                 circles[row][col].setFill(color);
@@ -184,10 +227,12 @@ public class GameController {
     
     @FXML
     private void resetGame() {
+        aiMoveService.cancel();
         gameBoard.reset();
         updateBoardUI();
         updatePlayerTurnLabel();
         isAiTurn = false;
+        gameStateService.startNewGame();
     }
     
     @FXML
@@ -204,8 +249,12 @@ public class GameController {
     }
     
     private void handleDifficultyChange() {
-        currentDifficulty = difficultyComboBox.getValue();
-        ai = new MinimaxAI(currentDifficulty);
+        String difficulty = difficultyComboBox.getValue();
+        currentDifficulty = engineRegistry.getConfig(difficulty).level();
+        aiMoveService.cancel();
+        isAiTurn = false;
+        aiMoveService.retire(ai);
+        ai = engineRegistry.create(difficulty);
     }
     
     @FXML
@@ -252,20 +301,30 @@ public class GameController {
             result.ifPresent(filename -> {
                 try {
                     GameState gameState = gameStateService.loadGame(filename);
-                    gameBoard.setCurrentPlayer(gameState.getCurrentPlayer());
+                    // As in resetGame, a search of the old position must never play on the loaded one
+                    aiMoveService.cancel();
+                    isAiTurn = false;
+                    gameStateService.startNewGame();
                     
-                    // Restore board state
-                    int[][] board = gameState.getBoard();
-                    for (int row = 0; row < GameBoard.ROWS; row++) {
-                        for (int col = 0; col < GameBoard.COLS; col++) {
-                            gameBoard.getBoard()[row][col] = board[row][col];
-                        }
+                    // Saves from the enhanced view may be larger than the standard board
+                    GameBoard loaded = gameState.toGameBoard();
+                    boolean resized = loaded.getRows() != gameBoard.getRows()
+                            || loaded.getCols() != gameBoard.getCols();
+                    gameBoard = loaded;
+                    if (resized) {
+                        circles = new Circle[gameBoard.getRows()][gameBoard.getCols()];
+                        initializeBoardUI();
+                        gameGrid.getScene().getWindow().sizeToScene();
                     }
                     
                     player1Score = gameState.getPlayer1Score();
                     player2Score = gameState.getPlayer2Score();
                     currentGameMode = gameState.getGameMode();
-                    currentDifficulty = gameState.getDifficulty();
+                    String difficulty = engineRegistry.getName(gameState.getDifficulty());
+                    if (difficulty != null) {
+                        // Rebuilds the engine through handleDifficultyChange
+                        difficultyComboBox.setValue(difficulty);
+                    }
                     
                     updateBoardUI();
                     updateScoreLabels();
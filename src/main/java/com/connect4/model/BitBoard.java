@@ -0,0 +1,240 @@
+package com.connect4.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitboard encoding of a Connect 4 position.
+ *
+ * Each column takes ROWS + 1 bits (the extra bit is a sentinel that keeps
+ * pieces in neighbouring columns from lining up across the shift), so bit
+ * {@code col * HEIGHT + h} is the cell {@code h} rows above the bottom of
+ * {@code col}. The whole 6x7 board fits in the low 49 bits of a long.
+ * This is the fast path for the standard board; other sizes use {@link WideBitBoard}.
+ */
+public final class BitBoard implements BoardBits {
+    public static final int ROWS = GameBoard.ROWS;
+    public static final int COLS = GameBoard.COLS;
+    public static final int HEIGHT = ROWS + 1;
+    private static final long SIDE_TO_MOVE_BIT = 1L << 63;
+    private static final long COLUMN_BITS = (1L << HEIGHT) - 1;
+    
+    private long player1Mask;
+    private long player2Mask;
+    private final int[] heights;
+    private int moveCount;
+    
+    public BitBoard() {
+        heights = new int[COLS];
+    }
+    
+    public BitBoard(BitBoard other) {
+        heights = new int[COLS];
+        copyFrom(other);
+    }
+    
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+    
+    @Override
+    public void copyFrom(BoardBits other) {
+        copyFrom((BitBoard) other);
+    }
+    
+    public void copyFrom(BitBoard other) {
+        player1Mask = other.player1Mask;
+        player2Mask = other.player2Mask;
+        System.arraycopy(other.heights, 0, heights, 0, COLS);
+        moveCount = other.moveCount;
+    }
+    
+    @Override
+    public boolean canPlay(int col) {
+        return heights[col] < ROWS;
+    }
+    
+    /**
+     * Drops a piece for {@code player} into {@code col} and returns the row
+     * (top-based, as used by {@link GameBoard}) it landed on. The caller is
+     * responsible for checking {@link #canPlay(int)} first.
+     */
+    @Override
+    public int play(int col, int player) {
+        int h = heights[col]++;
+        long bit = 1L << (col * HEIGHT + h);
+        if (player == 1) {
+            player1Mask |= bit;
+        } else {
+            player2Mask |= bit;
+        }
+        moveCount++;
+        return ROWS - 1 - h;
+    }
+    
+    @Override
+    public void undo(int col) {
+        long bit = 1L << (col * HEIGHT + --heights[col]);
+        player1Mask &= ~bit;
+        player2Mask &= ~bit;
+        moveCount--;
+    }
+    
+    @Override
+    public boolean isWin(int player) {
+        return hasFour(getMask(player));
+    }
+    
+    public static boolean hasFour(long mask) {
+        // vertical, horizontal, and the two diagonals
+        return hasFour(mask, 1) || hasFour(mask, HEIGHT) ||
+               hasFour(mask, HEIGHT - 1) || hasFour(mask, HEIGHT + 1);
+    }
+    
+    private static boolean hasFour(long mask, int shift) {
+        long pairs = mask & (mask >>> shift);
+        return (pairs & (pairs >>> (2 * shift))) != 0;
+    }
+    
+    /**
+     * Cells of every line of four or more that runs through the given cell
+     * for {@code player}, or 0 if there is none. Only the four lines through
+     * that cell are examined.
+     */
+    public long winningLineThrough(int row, int col, int player) {
+        long mask = getMask(player);
+        long cell = 1L << (col * HEIGHT + ROWS - 1 - row);
+        if ((mask & cell) == 0) {
+            return 0;
+        }
+        return runThrough(mask, cell, 1) | runThrough(mask, cell, HEIGHT)
+                | runThrough(mask, cell, HEIGHT - 1) | runThrough(mask, cell, HEIGHT + 1);
+    }
+    
+    @Override
+    public boolean isWinThrough(int row, int col, int player) {
+        return winningLineThrough(row, col, player) != 0;
+    }
+    
+    @Override
+    public List<int[]> winningCellsThrough(int row, int col, int player) {
+        long line = winningLineThrough(row, col, player);
+        List<int[]> cells = new ArrayList<>();
+        for (int c = 0; c < COLS; c++) {
+            for (int r = 0; r < ROWS; r++) {
+                if ((line & (1L << (c * HEIGHT + ROWS - 1 - r))) != 0) {
+                    cells.add(new int[] {r, c});
+                }
+            }
+        }
+        return cells;
+    }
+    
+    private static long runThrough(long mask, long cell, int shift) {
+        // The sentinel row is never set, so runs stop at column edges
+        long run = cell;
+        for (long next = cell << shift; (mask & next) != 0; next <<= shift) {
+            run |= next;
+        }
+        for (long next = cell >>> shift; (mask & next) != 0; next >>>= shift) {
+            run |= next;
+        }
+        return Long.bitCount(run) >= 4 ? run : 0;
+    }
+    
+    @Override
+    public int getPiece(int row, int col) {
+        long bit = 1L << (col * HEIGHT + ROWS - 1 - row);
+        if ((player1Mask & bit) != 0) return 1;
+        if ((player2Mask & bit) != 0) return 2;
+        return 0;
+    }
+    
+    @Override
+    public void setPiece(int row, int col, int player) {
+        long bit = 1L << (col * HEIGHT + ROWS - 1 - row);
+        player1Mask &= ~bit;
+        player2Mask &= ~bit;
+        if (player == 1) {
+            player1Mask |= bit;
+        } else if (player == 2) {
+            player2Mask |= bit;
+        }
+        recount();
+    }
+    
+    private void recount() {
+        long occupied = player1Mask | player2Mask;
+        for (int col = 0; col < COLS; col++) {
+            int h = 0;
+            while (h < ROWS && (occupied & (1L << (col * HEIGHT + h))) != 0) {
+                h++;
+            }
+            heights[col] = h;
+        }
+        moveCount = Long.bitCount(occupied);
+    }
+    
+    /**
+     * Unique key for the position with {@code sideToMove} to play. Adding the
+     * player 1 stones to the occupancy mask sets a distinct bit pattern per
+     * column, so the sum identifies the position without collisions; the top
+     * bit records the side to move.
+     */
+    @Override
+    public long key(int sideToMove) {
+        long key = player1Mask + (player1Mask | player2Mask);
+        return sideToMove == 2 ? key | SIDE_TO_MOVE_BIT : key;
+    }
+    
+    @Override
+    public long mirroredKey(int sideToMove) {
+        // The sum never carries out of a column, so the key mirrors column by column
+        long key = mirror(player1Mask + (player1Mask | player2Mask));
+        return sideToMove == 2 ? key | SIDE_TO_MOVE_BIT : key;
+    }
+    
+    /**
+     * Reflects a mask in this layout about the center column.
+     */
+    public static long mirror(long mask) {
+        long mirrored = 0;
+        for (int col = 0; col < COLS; col++) {
+            mirrored |= ((mask >>> (col * HEIGHT)) & COLUMN_BITS) << ((COLS - 1 - col) * HEIGHT);
+        }
+        return mirrored;
+    }
+    
+    public long getMask(int player) {
+        return player == 1 ? player1Mask : player2Mask;
+    }
+    
+    public long getOccupiedMask() {
+        return player1Mask | player2Mask;
+    }
+    
+    @Override
+    public int getHeight(int col) {
+        return heights[col];
+    }
+    
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    @Override
+    public boolean isFull() {
+        return moveCount == ROWS * COLS;
+    }
+    
+    @Override
+    public void clear() {
+        player1Mask = 0;
+        player2Mask = 0;
+        Arrays.fill(heights, 0);
+        moveCount = 0;
+    }
+}
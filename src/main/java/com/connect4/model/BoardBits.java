@@ -0,0 +1,58 @@
+package com.connect4.model;
+
+import java.util.List;
+
+/**
+ * Piece storage behind {@link GameBoard}: {@link BitBoard} for the standard
+ * board and {@link WideBitBoard} for every other size and line length.
+ * Rows are top-based as in {@link GameBoard}.
+ */
+interface BoardBits {
+    
+    boolean canPlay(int col);
+    
+    /**
+     * Drops a piece and returns the row it landed on; the column must not be full.
+     */
+    int play(int col, int player);
+    
+    void undo(int col);
+    
+    boolean isWin(int player);
+    
+    /**
+     * Whether a winning line of {@code player} runs through the given cell.
+     */
+    boolean isWinThrough(int row, int col, int player);
+    
+    /**
+     * The {row, col} cells of every winning line through the given cell, empty if there is none.
+     */
+    List<int[]> winningCellsThrough(int row, int col, int player);
+    
+    int getPiece(int row, int col);
+    
+    void setPiece(int row, int col, int player);
+    
+    long key(int sideToMove);
+    
+    /**
+     * {@link #key} of the board reflected about its center column.
+     */
+    long mirroredKey(int sideToMove);
+    
+    int getHeight(int col);
+    
+    int getMoveCount();
+    
+    boolean isFull();
+    
+    void clear();
+    
+    BoardBits copy();
+    
+    /**
+     * Overwrites this position with {@code other}, which must have the same shape.
+     */
+    void copyFrom(BoardBits other);
+}
@@ -1,131 +1,282 @@
 package com.connect4.model;
 
 import java.util.Arrays;
+import java.util.List;
 
+/**
+ * A Connect N position of any size. The standard 6x7 connect-four board is
+ * backed by a single-long {@link BitBoard}; every other shape uses a
+ * multi-word bitboard and slower but general line checks.
+ */
 public class GameBoard {
+    // Dimensions of the standard board
     public static final int ROWS = 6;
     public static final int COLS = 7;
-    private final int[][] board;
+    public static final int CONNECT = 4;
+    
+    private final int rows;
+    private final int cols;
+    private final int connect;
+    private final BoardBits bits;
     private int currentPlayer;
     
+    // Columns played since the last reset or load, most recent last
+    private final int[] moveHistory;
+    private int historySize;
+    
+    // int[][] view for the controllers and GameState, rebuilt only when read after a change
+    private int[][] boardView;
+    private boolean viewStale = true;
+    
     public GameBoard() {
-        board = new int[ROWS][COLS];
-        currentPlayer = 1;
-        initializeBoard();
+        this(ROWS, COLS, CONNECT);
     }
     
-    private void initializeBoard() {
-        for (int[] row : board) {
-            Arrays.fill(row, 0);
+    /**
+     * @param connect length of a winning line
+     */
+    public GameBoard(int rows, int cols, int connect) {
+        if (rows < 1 || cols < 1 || connect < 2 || connect > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("Invalid board: " + rows + "x" + cols + " connect " + connect);
         }
+        this.rows = rows;
+        this.cols = cols;
+        this.connect = connect;
+        this.bits = isStandard(rows, cols, connect) ? new BitBoard() : new WideBitBoard(rows, cols, connect);
+        this.moveHistory = new int[rows * cols];
+        this.currentPlayer = 1;
+    }
+    
+    public GameBoard(GameBoard other) {
+        rows = other.rows;
+        cols = other.cols;
+        connect = other.connect;
+        bits = other.bits.copy();
+        moveHistory = new int[rows * cols];
+        copyFrom(other);
+    }
+    
+    private static boolean isStandard(int rows, int cols, int connect) {
+        return rows == ROWS && cols == COLS && connect == CONNECT;
+    }
+    
+    /**
+     * Overwrites this board with {@code other} without allocating. Both must have the same shape.
+     */
+    public void copyFrom(GameBoard other) {
+        if (other.rows != rows || other.cols != cols || other.connect != connect) {
+            throw new IllegalArgumentException("Cannot copy a board of a different shape");
+        }
+        bits.copyFrom(other.bits);
+        currentPlayer = other.currentPlayer;
+        System.arraycopy(other.moveHistory, 0, moveHistory, 0, other.historySize);
+        historySize = other.historySize;
+        viewStale = true;
     }
     
     public boolean dropPiece(int col) {
-        if (col < 0 || col >= COLS || isColumnFull(col)) {
+        if (col < 0 || col >= cols || isColumnFull(col)) {
             return false;
         }
         
-        for (int row = ROWS - 1; row >= 0; row--) {
-            if (board[row][col] == 0) {
-                board[row][col] = currentPlayer;
-                return true;
-            }
-        }
-        return false;
+        bits.play(col, currentPlayer);
+        moveHistory[historySize++] = col;
+        viewStale = true;
+        return true;
+    }
+    
+    /**
+     * Plays {@code col} for the side to move and hands the turn over, without
+     * bounds checks or allocation. Intended for search; the column must not be full.
+     */
+    public void makeMove(int col) {
+        bits.play(col, currentPlayer);
+        moveHistory[historySize++] = col;
+        currentPlayer = 3 - currentPlayer;
+        viewStale = true;
+    }
+    
+    /**
+     * Reverts a {@link #makeMove(int)} on {@code col}, including the turn.
+     */
+    public void unmakeMove(int col) {
+        bits.undo(col);
+        historySize--;
+        currentPlayer = 3 - currentPlayer;
+        viewStale = true;
     }
     
     public boolean isColumnFull(int col) {
-        return board[0][col] != 0;
+        return !bits.canPlay(col);
     }
     
     public boolean checkWin(int player) {
-        return checkHorizontalWin(player) || 
-               checkVerticalWin(player) || 
-               checkDiagonalWin(player);
-    }
-    
-    private boolean checkHorizontalWin(int player) {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col <= COLS - 4; col++) {
-                if (board[row][col] == player &&
-                    board[row][col + 1] == player &&
-                    board[row][col + 2] == player &&
-                    board[row][col + 3] == player) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return bits.isWin(player);
+    }
+    
+    /**
+     * Whether the most recently dropped piece completed a winning line. Only
+     * the lines through that piece are examined; after {@link #loadBoard}
+     * there is no last move, so use {@link #checkWin(int)} instead.
+     */
+    public boolean isLastMoveWin() {
+        int col = getLastMoveCol();
+        if (col < 0) return false;
+        int row = getLastMoveRow();
+        return bits.isWinThrough(row, col, bits.getPiece(row, col));
+    }
+    
+    /**
+     * The {row, col} cells of the line(s) completed by the last move, or
+     * null if the last move did not win.
+     */
+    public List<int[]> getWinningPositions() {
+        int col = getLastMoveCol();
+        if (col < 0) return null;
+        int row = getLastMoveRow();
+        List<int[]> positions = bits.winningCellsThrough(row, col, bits.getPiece(row, col));
+        return positions.isEmpty() ? null : positions;
+    }
+    
+    /**
+     * Row of the most recently dropped piece, or -1 if none is known.
+     */
+    public int getLastMoveRow() {
+        int col = getLastMoveCol();
+        return col < 0 ? -1 : rows - bits.getHeight(col);
+    }
+    
+    public int getLastMoveCol() {
+        return historySize > 0 ? moveHistory[historySize - 1] : -1;
+    }
+    
+    /**
+     * Columns played since the last reset or load, oldest first.
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(moveHistory, historySize);
+    }
+    
+    public boolean isBoardFull() {
+        return bits.isFull();
     }
     
-    private boolean checkVerticalWin(int player) {
-        for (int col = 0; col < COLS; col++) {
-            for (int row = 0; row <= ROWS - 4; row++) {
-                if (board[row][col] == player &&
-                    board[row + 1][col] == player &&
-                    board[row + 2][col] == player &&
-                    board[row + 3][col] == player) {
-                    return true;
+    public void switchPlayer() {
+        currentPlayer = (currentPlayer == 1) ? 2 : 1;
+    }
+    
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+    
+    /**
+     * Returns a row-major snapshot of the board (row 0 is the top). The array
+     * is derived from the bitboard and is not written back, so use
+     * {@link #loadBoard(int[][])} to change the position.
+     */
+    public int[][] getBoard() {
+        if (viewStale) {
+            boardView = new int[rows][cols];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    boardView[row][col] = bits.getPiece(row, col);
                 }
             }
+            viewStale = false;
         }
-        return false;
-    }
-    
-    private boolean checkDiagonalWin(int player) {
-        // Check diagonal (bottom-left to top-right)
-        for (int row = 3; row < ROWS; row++) {
-            for (int col = 0; col <= COLS - 4; col++) {
-                if (board[row][col] == player &&
-                    board[row - 1][col + 1] == player &&
-                    board[row - 2][col + 2] == player &&
-                    board[row - 3][col + 3] == player) {
-                    return true;
-                }
-            }
+        return boardView;
+    }
+    
+    public void loadBoard(int[][] board) {
+        if (board.length != rows || board[0].length != cols) {
+            throw new IllegalArgumentException("Expected a " + rows + "x" + cols + " board, got "
+                                               + board.length + "x" + board[0].length);
         }
-        
-        // Check diagonal (top-left to bottom-right)
-        for (int row = 0; row <= ROWS - 4; row++) {
-            for (int col = 0; col <= COLS - 4; col++) {
-                if (board[row][col] == player &&
-                    board[row + 1][col + 1] == player &&
-                    board[row + 2][col + 2] == player &&
-                    board[row + 3][col + 3] == player) {
-                    return true;
+        bits.clear();
+        historySize = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (board[row][col] != 0) {
+                    bits.setPiece(row, col, board[row][col]);
                 }
             }
         }
-        return false;
+        viewStale = true;
     }
     
-    public boolean isBoardFull() {
-        for (int col = 0; col < COLS; col++) {
-            if (!isColumnFull(col)) {
-                return false;
-            }
+    public long getPositionKey() {
+        return bits.key(currentPlayer);
+    }
+    
+    /**
+     * The smaller of the keys of this position and its mirror image, so that
+     * both share one table or book entry. When it differs from
+     * {@link #getPositionKey()}, moves stored under it belong to the mirror
+     * image and are mapped back with {@link #mirrorColumn(int)}.
+     */
+    public long getCanonicalKey() {
+        return Math.min(bits.key(currentPlayer), bits.mirroredKey(currentPlayer));
+    }
+    
+    public int mirrorColumn(int col) {
+        return cols - 1 - col;
+    }
+    
+    /**
+     * The single-long bitboard of the standard board, for the engines that
+     * only play that size.
+     *
+     * @throws IllegalStateException if this is not the standard board
+     */
+    public BitBoard getBitBoard() {
+        if (!(bits instanceof BitBoard standard)) {
+            throw new IllegalStateException("Only the standard board has a single-long bitboard");
         }
-        return true;
+        return standard;
     }
     
-    public void switchPlayer() {
-        currentPlayer = (currentPlayer == 1) ? 2 : 1;
+    /**
+     * Whether this is the 6x7 connect-four board that the solver, the opening
+     * book and the bitboard fast paths are built for.
+     */
+    public boolean isStandardSize() {
+        return bits instanceof BitBoard;
     }
     
-    public int getCurrentPlayer() {
-        return currentPlayer;
+    public int getRows() {
+        return rows;
     }
     
-    public int[][] getBoard() {
-        return board;
+    public int getCols() {
+        return cols;
+    }
+    
+    public int getConnect() {
+        return connect;
+    }
+    
+    /**
+     * Number of pieces on the board.
+     */
+    public int getMoveCount() {
+        return bits.getMoveCount();
+    }
+    
+    /**
+     * Number of pieces in {@code col}.
+     */
+    public int getHeight(int col) {
+        return bits.getHeight(col);
     }
     
     public int getPiece(int row, int col) {
-        return board[row][col];
+        return bits.getPiece(row, col);
     }
     
     public void reset() {
-        initializeBoard();
+        bits.clear();
+        historySize = 0;
+        viewStale = true;
         currentPlayer = 1;
     }
     
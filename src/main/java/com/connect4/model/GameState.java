@@ -68,4 +68,15 @@ public class GameState {
     public int getDifficulty() {
         return difficulty;
     }
+    
+    /**
+     * A board of the saved size with the saved pieces and player to move.
+     * Saves do not record the line length, so it is {@link GameBoard#CONNECT}.
+     */
+    public GameBoard toGameBoard() {
+        GameBoard gameBoard = new GameBoard(board.length, board[0].length, GameBoard.CONNECT);
+        gameBoard.setCurrentPlayer(currentPlayer);
+        gameBoard.loadBoard(board);
+        return gameBoard;
+    }
 }
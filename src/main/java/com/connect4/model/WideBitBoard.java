@@ -0,0 +1,273 @@
+package com.connect4.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitboard for any board size and line length, one {@code long[]} per
+ * player. The layout matches {@link BitBoard}: each column takes rows + 1
+ * bits and bit {@code col * height + h} is the cell {@code h} rows above the
+ * bottom, so boards of more than 64 cells simply span several words.
+ *
+ * Lines are found by walking outwards from a cell rather than by shifting
+ * whole masks, since shifts across word boundaries would cost more than the
+ * few cells a line check visits.
+ */
+final class WideBitBoard implements BoardBits {
+    private static final long SIDE_TO_MOVE_BIT = 1L << 63;
+    // (dCol, dHeight): vertical, horizontal and the two diagonals
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    
+    private final int rows;
+    private final int cols;
+    private final int connect;
+    private final int height;
+    private final long[] player1Words;
+    private final long[] player2Words;
+    private final int[] heights;
+    private int moveCount;
+    
+    WideBitBoard(int rows, int cols, int connect) {
+        this.rows = rows;
+        this.cols = cols;
+        this.connect = connect;
+        this.height = rows + 1;
+        int words = (cols * height + 63) >>> 6;
+        this.player1Words = new long[words];
+        this.player2Words = new long[words];
+        this.heights = new int[cols];
+    }
+    
+    private WideBitBoard(WideBitBoard other) {
+        this(other.rows, other.cols, other.connect);
+        copyFrom(other);
+    }
+    
+    @Override
+    public WideBitBoard copy() {
+        return new WideBitBoard(this);
+    }
+    
+    @Override
+    public void copyFrom(BoardBits other) {
+        WideBitBoard source = (WideBitBoard) other;
+        System.arraycopy(source.player1Words, 0, player1Words, 0, player1Words.length);
+        System.arraycopy(source.player2Words, 0, player2Words, 0, player2Words.length);
+        System.arraycopy(source.heights, 0, heights, 0, cols);
+        moveCount = source.moveCount;
+    }
+    
+    @Override
+    public boolean canPlay(int col) {
+        return heights[col] < rows;
+    }
+    
+    @Override
+    public int play(int col, int player) {
+        int h = heights[col]++;
+        int index = col * height + h;
+        long[] words = player == 1 ? player1Words : player2Words;
+        words[index >>> 6] |= 1L << index;
+        moveCount++;
+        return rows - 1 - h;
+    }
+    
+    @Override
+    public void undo(int col) {
+        int index = col * height + --heights[col];
+        long bit = ~(1L << index);
+        player1Words[index >>> 6] &= bit;
+        player2Words[index >>> 6] &= bit;
+        moveCount--;
+    }
+    
+    @Override
+    public boolean isWin(int player) {
+        for (int col = 0; col < cols; col++) {
+            for (int h = 0; h < heights[col]; h++) {
+                if (!owns(player, col, h)) continue;
+                for (int[] d : DIRECTIONS) {
+                    // Count each line once, from its first cell
+                    if (!owns(player, col - d[0], h - d[1])
+                            && 1 + run(player, col, h, d[0], d[1]) >= connect) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean isWinThrough(int row, int col, int player) {
+        int h = rows - 1 - row;
+        if (!owns(player, col, h)) {
+            return false;
+        }
+        for (int[] d : DIRECTIONS) {
+            if (1 + run(player, col, h, d[0], d[1]) + run(player, col, h, -d[0], -d[1]) >= connect) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<int[]> winningCellsThrough(int row, int col, int player) {
+        List<int[]> cells = new ArrayList<>();
+        int h = rows - 1 - row;
+        if (!owns(player, col, h)) {
+            return cells;
+        }
+        boolean centerAdded = false;
+        for (int[] d : DIRECTIONS) {
+            int forward = run(player, col, h, d[0], d[1]);
+            int backward = run(player, col, h, -d[0], -d[1]);
+            if (1 + forward + backward < connect) continue;
+            
+            if (!centerAdded) {
+                cells.add(new int[] {row, col});
+                centerAdded = true;
+            }
+            for (int i = -backward; i <= forward; i++) {
+                if (i != 0) {
+                    cells.add(new int[] {rows - 1 - (h + i * d[1]), col + i * d[0]});
+                }
+            }
+        }
+        return cells;
+    }
+    
+    /**
+     * Number of consecutive pieces of {@code player} after (col, h) in the given direction.
+     */
+    private int run(int player, int col, int h, int dCol, int dHeight) {
+        int count = 0;
+        int c = col + dCol;
+        int r = h + dHeight;
+        while (owns(player, c, r)) {
+            count++;
+            c += dCol;
+            r += dHeight;
+        }
+        return count;
+    }
+    
+    private boolean owns(int player, int col, int h) {
+        if (col < 0 || col >= cols || h < 0 || h >= rows) {
+            return false;
+        }
+        int index = col * height + h;
+        long[] words = player == 1 ? player1Words : player2Words;
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    @Override
+    public int getPiece(int row, int col) {
+        int h = rows - 1 - row;
+        if (owns(1, col, h)) return 1;
+        if (owns(2, col, h)) return 2;
+        return 0;
+    }
+    
+    @Override
+    public void setPiece(int row, int col, int player) {
+        int index = col * height + rows - 1 - row;
+        long bit = 1L << index;
+        player1Words[index >>> 6] &= ~bit;
+        player2Words[index >>> 6] &= ~bit;
+        if (player == 1) {
+            player1Words[index >>> 6] |= bit;
+        } else if (player == 2) {
+            player2Words[index >>> 6] |= bit;
+        }
+        recount();
+    }
+    
+    private void recount() {
+        for (int col = 0; col < cols; col++) {
+            int h = 0;
+            while (h < rows && (owns(1, col, h) || owns(2, col, h))) {
+                h++;
+            }
+            heights[col] = h;
+        }
+        moveCount = 0;
+        for (int i = 0; i < player1Words.length; i++) {
+            moveCount += Long.bitCount(player1Words[i] | player2Words[i]);
+        }
+    }
+    
+    /**
+     * 64-bit hash of the position with {@code sideToMove} to play. Unlike
+     * {@link BitBoard#key} it is not collision-free, but the transposition
+     * table tolerates rare collisions just as it would with Zobrist keys.
+     */
+    @Override
+    public long key(int sideToMove) {
+        long key = rows * 31L + cols;
+        for (int col = 0; col < cols; col++) {
+            key = columnKey(key, col);
+        }
+        return sideToMove == 2 ? key | SIDE_TO_MOVE_BIT : key & ~SIDE_TO_MOVE_BIT;
+    }
+    
+    @Override
+    public long mirroredKey(int sideToMove) {
+        long key = rows * 31L + cols;
+        for (int col = cols - 1; col >= 0; col--) {
+            key = columnKey(key, col);
+        }
+        return sideToMove == 2 ? key | SIDE_TO_MOVE_BIT : key & ~SIDE_TO_MOVE_BIT;
+    }
+    
+    // Hashed a column at a time so that the mirror image is the same walk in reverse
+    private long columnKey(long key, int col) {
+        for (int h = 0; h < rows; h += 64) {
+            int length = Math.min(64, rows - h);
+            key = mix(key ^ bits(player1Words, col * height + h, length));
+            key = mix(key ^ bits(player2Words, col * height + h, length));
+        }
+        return key;
+    }
+    
+    private static long bits(long[] words, int index, int length) {
+        int offset = index & 63;
+        long value = words[index >>> 6] >>> offset;
+        if (offset + length > 64) {
+            value |= words[(index >>> 6) + 1] << (64 - offset);
+        }
+        return length == 64 ? value : value & ((1L << length) - 1);
+    }
+    
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    @Override
+    public int getHeight(int col) {
+        return heights[col];
+    }
+    
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+    
+    @Override
+    public boolean isFull() {
+        return moveCount == rows * cols;
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(player1Words, 0);
+        Arrays.fill(player2Words, 0);
+        Arrays.fill(heights, 0);
+        moveCount = 0;
+    }
+}
@@ -10,6 +10,9 @@ import javafx.scene.control.Alert;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -22,6 +25,7 @@ public class CloudSaveManager {
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final EnhancedSettings settings = EnhancedSettings.getInstance();
+    private final SaveCatalog catalog = new SaveCatalog(Paths.get(LOCAL_SAVE_DIR), this::describe);
     private String userId;
     
     public CloudSaveManager() {
@@ -42,7 +46,9 @@ public class CloudSaveManager {
                 String json = objectMapper.writeValueAsString(gameState);
                 
                 // Save locally
-                saveToLocalFile(filename, json);
+                SaveCatalog.Entry entry = SaveCatalog.Entry.of(filename.replace(".json", ""), gameState, filename,
+                                                               json.getBytes().length);
+                catalog.put(entry, () -> saveToLocalFile(filename, json));
                 
                 // Save to cloud if enabled
                 if (settings.isCloudSaveEnabled()) {
@@ -86,22 +92,18 @@ public class CloudSaveManager {
         return CompletableFuture.supplyAsync(() -> {
             List<GameSave> saves = new ArrayList<>();
             
-            // Load local saves
-            File saveDir = new File(LOCAL_SAVE_DIR);
-            File[] files = saveDir.listFiles((dir, name) -> name.endsWith(".json"));
-            
-            if (files != null) {
-                for (File file : files) {
-                    try {
-                        String content = loadFromLocalFile(file.getName());
-                        GameSave save = objectMapper.readValue(content, GameSave.class);
-                        save.setId(file.getName().replace(".json", ""));
-                        save.setLocation("Local");
-                        saves.add(save);
-                    } catch (Exception e) {
-                        System.err.println("Error loading save: " + e.getMessage());
-                    }
+            // Load local saves from the catalog rather than parsing every file
+            try {
+                for (SaveCatalog.Entry entry : catalog.list()) {
+                    GameSave save = new GameSave();
+                    save.setId(entry.name());
+                    save.setName(entry.name());
+                    save.setLastModified(Date.from(entry.timestamp().atZone(ZoneId.systemDefault()).toInstant()));
+                    save.setLocation("Local");
+                    saves.add(save);
                 }
+            } catch (IOException e) {
+                System.err.println("Error loading saves: " + e.getMessage());
             }
             
             // Load cloud saves
@@ -152,6 +154,15 @@ public class CloudSaveManager {
         });
     }
     
+    private SaveCatalog.Entry describe(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(".json") || name.equals(SETTINGS_FILE) || name.equals(GAME_HISTORY_FILE)) {
+            return null;
+        }
+        GameState gameState = objectMapper.readValue(file.toFile(), GameState.class);
+        return SaveCatalog.Entry.of(name.replace(".json", ""), gameState, file);
+    }
+    
     private void saveToLocalFile(String filename, String content) throws IOException {
         File file = new File(LOCAL_SAVE_DIR, filename);
         try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
@@ -0,0 +1,401 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finished games for analysis, many thousands to a file pair instead of one
+ * save per game. Games are numbered from 0 in the order they were appended.
+ *
+ * The data file holds one record per game: the result, the number of moves
+ * and a byte per move. It is split into fixed-size segments, each mapped
+ * separately so the file can outgrow a single {@link MappedByteBuffer}, and
+ * a record never crosses a segment boundary. The index file beside it holds
+ * the board shape and then one 8-byte data offset per game, so finding a
+ * game is one lookup. Reads go through the mappings, so iterating over the
+ * whole archive keeps only the current game on the heap.
+ *
+ * A game is appended by writing its record and then its index entry; the
+ * index is what makes it part of the archive. Opening drops any index entry
+ * whose record did not reach the disk, and anything after the last record.
+ */
+public final class GameArchive implements Closeable, Iterable<GameArchive.Game> {
+    public static final String EXTENSION = ".c4a";
+    public static final String INDEX_EXTENSION = ".c4x";
+    public static final int DRAW = 0;
+    public static final int UNFINISHED = -1;
+    static final int MAGIC = 0x43344152; // "C4AR"
+    static final int INDEX_MAGIC = 0x43344158; // "C4AX"
+    static final int VERSION = 1;
+    static final int DEFAULT_SEGMENT_BYTES = 1 << 26;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 3;
+    private static final int OFFSET_BYTES = Long.BYTES;
+    private static final int NO_RESULT = 0xFF;
+    
+    /**
+     * One archived game.
+     *
+     * @param winner player who won, {@link #DRAW} or {@link #UNFINISHED}
+     */
+    public record Game(long id, int winner, int[] moves) { }
+    
+    private final FileChannel data;
+    private final FileChannel index;
+    private final int rows;
+    private final int cols;
+    private final int connect;
+    private final int segmentBytes;
+    private long count;
+    private long dataEnd;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private MappedByteBuffer offsets;
+    
+    private GameArchive(FileChannel data, FileChannel index, int rows, int cols, int connect, int segmentBytes) {
+        this.data = data;
+        this.index = index;
+        this.rows = rows;
+        this.cols = cols;
+        this.connect = connect;
+        this.segmentBytes = segmentBytes;
+    }
+    
+    /**
+     * Opens the archive at {@code file}, creating it for standard games if it
+     * does not exist. The index is kept next to it with {@link #INDEX_EXTENSION}.
+     */
+    public static GameArchive open(Path file) throws IOException {
+        return open(file, GameBoard.ROWS, GameBoard.COLS, GameBoard.CONNECT);
+    }
+    
+    /**
+     * Opens the archive at {@code file}, creating it for games of the given
+     * shape if it does not exist.
+     *
+     * @throws IOException if the archive exists with another shape or is not an archive
+     */
+    public static GameArchive open(Path file, int rows, int cols, int connect) throws IOException {
+        return open(file, rows, cols, connect, DEFAULT_SEGMENT_BYTES);
+    }
+    
+    static GameArchive open(Path file, int rows, int cols, int connect, int segmentBytes) throws IOException {
+        if (rows > 255 || cols > 255 || connect > 255) {
+            throw new IllegalArgumentException("Board too large to archive: " + rows + "x" + cols);
+        }
+        if (segmentBytes < HEADER_BYTES + RECORD_HEADER_BYTES + rows * cols) {
+            throw new IllegalArgumentException("Segment too small for a game: " + segmentBytes);
+        }
+        Path indexFile = file.resolveSibling(file.getFileName() + INDEX_EXTENSION);
+        FileChannel data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE);
+        FileChannel index;
+        try {
+            index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                     StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        try {
+            GameArchive archive;
+            if (index.size() < HEADER_BYTES) {
+                if (data.size() > HEADER_BYTES) {
+                    throw new IOException("Archive index missing or damaged: " + indexFile);
+                }
+                archive = new GameArchive(data, index, rows, cols, connect, segmentBytes);
+                archive.writeHeaders();
+            } else {
+                archive = read(data, index, file);
+                if (archive.rows != rows || archive.cols != cols || archive.connect != connect) {
+                    throw new IOException("Archive " + file + " holds " + archive.rows + "x" + archive.cols
+                                          + " games, not " + rows + "x" + cols);
+                }
+            }
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            index.close();
+            throw e;
+        }
+    }
+    
+    private void writeHeaders() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(INDEX_MAGIC)
+              .put((byte) VERSION)
+              .put((byte) rows)
+              .put((byte) cols)
+              .put((byte) connect)
+              .putInt(segmentBytes)
+              .flip();
+        writeFully(index, header, 0);
+        index.truncate(HEADER_BYTES);
+        
+        ByteBuffer dataHeader = ByteBuffer.allocate(HEADER_BYTES);
+        dataHeader.putInt(MAGIC).put((byte) VERSION).flip();
+        writeFully(data, dataHeader, 0);
+        data.truncate(HEADER_BYTES);
+        count = 0;
+        dataEnd = HEADER_BYTES;
+    }
+    
+    private static GameArchive read(FileChannel data, FileChannel index, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        index.read(header, 0);
+        header.flip();
+        ByteBuffer dataHeader = ByteBuffer.allocate(HEADER_BYTES);
+        data.read(dataHeader, 0);
+        dataHeader.flip();
+        if (header.getInt() != INDEX_MAGIC || dataHeader.remaining() < Integer.BYTES
+                || dataHeader.getInt() != MAGIC) {
+            throw new IOException("Not a game archive: " + file);
+        }
+        int version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive version " + version + " in " + file);
+        }
+        int rows = Byte.toUnsignedInt(header.get());
+        int cols = Byte.toUnsignedInt(header.get());
+        int connect = Byte.toUnsignedInt(header.get());
+        int segmentBytes = header.getInt();
+        if (segmentBytes < HEADER_BYTES + RECORD_HEADER_BYTES + rows * cols) {
+            throw new IOException("Corrupt archive header in " + file);
+        }
+        GameArchive archive = new GameArchive(data, index, rows, cols, connect, segmentBytes);
+        archive.recover();
+        return archive;
+    }
+    
+    /**
+     * Drops index entries whose records are missing or torn, then anything
+     * in either file after the last whole game.
+     */
+    private void recover() throws IOException {
+        long entries = (index.size() - HEADER_BYTES) / OFFSET_BYTES;
+        long dataSize = data.size();
+        dataEnd = HEADER_BYTES;
+        count = 0;
+        ByteBuffer entry = ByteBuffer.allocate(OFFSET_BYTES);
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        for (long id = 0; id < entries; id++) {
+            entry.clear();
+            index.read(entry, offsetPosition(id));
+            long offset = entry.flip().getLong();
+            if (offset < dataEnd || offset + RECORD_HEADER_BYTES > dataSize) break;
+            recordHeader.clear();
+            data.read(recordHeader, offset);
+            int moves = Short.toUnsignedInt(recordHeader.flip().getShort(1));
+            long end = offset + RECORD_HEADER_BYTES + moves;
+            if (end > dataSize) break;
+            dataEnd = end;
+            count = id + 1;
+        }
+        index.truncate(offsetPosition(count));
+        data.truncate(dataEnd);
+    }
+    
+    /**
+     * Appends a game and returns its id.
+     *
+     * @param winner player who won, {@link #DRAW} or {@link #UNFINISHED}
+     */
+    public synchronized long append(int[] moves, int winner) throws IOException {
+        if (moves.length > rows * cols) {
+            throw new IllegalArgumentException("More moves than cells: " + moves.length);
+        }
+        if (winner < UNFINISHED || winner > 2) {
+            throw new IllegalArgumentException("Invalid winner " + winner);
+        }
+        int length = RECORD_HEADER_BYTES + moves.length;
+        long offset = dataEnd;
+        long segmentEnd = (offset / segmentBytes + 1) * segmentBytes;
+        if (offset + length > segmentEnd) {
+            offset = segmentEnd;
+        }
+        
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.put((byte) (winner == UNFINISHED ? NO_RESULT : winner)).putShort((short) moves.length);
+        for (int col : moves) {
+            if (col < 0 || col >= cols) {
+                throw new IllegalArgumentException("Invalid column " + col);
+            }
+            record.put((byte) col);
+        }
+        writeFully(data, record.flip(), offset);
+        ByteBuffer entry = ByteBuffer.allocate(OFFSET_BYTES);
+        writeFully(index, entry.putLong(offset).flip(), offsetPosition(count));
+        dataEnd = offset + length;
+        return count++;
+    }
+    
+    /**
+     * Appends the game played on {@code board} since it was last reset,
+     * scored by its final position.
+     */
+    public long append(GameBoard board) throws IOException {
+        if (board.getRows() != rows || board.getCols() != cols || board.getConnect() != connect) {
+            throw new IllegalArgumentException("Board shape does not match the archive");
+        }
+        int winner = board.isLastMoveWin() ? board.getPiece(board.getLastMoveRow(), board.getLastMoveCol())
+                   : board.isBoardFull() ? DRAW : UNFINISHED;
+        return append(board.getMoveHistory(), winner);
+    }
+    
+    public synchronized long size() {
+        return count;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getCols() {
+        return cols;
+    }
+    
+    public int getConnect() {
+        return connect;
+    }
+    
+    /**
+     * @throws IndexOutOfBoundsException if no game has that id
+     */
+    public synchronized Game get(long id) throws IOException {
+        ByteBuffer record = record(id);
+        int result = Byte.toUnsignedInt(record.get());
+        int[] moves = new int[Short.toUnsignedInt(record.getShort())];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Byte.toUnsignedInt(record.get());
+        }
+        return new Game(id, result == NO_RESULT ? UNFINISHED : result, moves);
+    }
+    
+    /**
+     * Final position of game {@code id}.
+     */
+    public GameBoard replay(long id) throws IOException {
+        GameBoard board = new GameBoard(rows, cols, connect);
+        for (int col : get(id).moves()) {
+            board.makeMove(col);
+        }
+        return board;
+    }
+    
+    /**
+     * Record of game {@code id}, positioned at its start and limited to its end.
+     */
+    private ByteBuffer record(long id) throws IOException {
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No game " + id + " in an archive of " + count);
+        }
+        long indexEnd = offsetPosition(count);
+        if (offsets == null || offsets.capacity() < indexEnd) {
+            offsets = index.map(FileChannel.MapMode.READ_ONLY, 0, indexEnd);
+        }
+        long offset = offsets.getLong((int) offsetPosition(id));
+        
+        int segment = (int) (offset / segmentBytes);
+        int start = (int) (offset % segmentBytes);
+        MappedByteBuffer mapped = segment(segment, start + RECORD_HEADER_BYTES);
+        int length = RECORD_HEADER_BYTES + Short.toUnsignedInt(mapped.getShort(start + 1));
+        mapped = segment(segment, start + length);
+        return mapped.duplicate().limit(start + length).position(start);
+    }
+    
+    /**
+     * Mapping of {@code segment} covering at least its first {@code bytes} bytes.
+     */
+    private MappedByteBuffer segment(int segment, int bytes) throws IOException {
+        if (segment >= segments.length) {
+            segments = Arrays.copyOf(segments, segment + 1);
+        }
+        MappedByteBuffer mapped = segments[segment];
+        if (mapped == null || mapped.capacity() < bytes) {
+            long start = (long) segment * segmentBytes;
+            mapped = data.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentBytes, dataEnd - start));
+            segments[segment] = mapped;
+        }
+        return mapped;
+    }
+    
+    /**
+     * Games in id order, read one at a time as the iteration reaches them.
+     */
+    @Override
+    public Iterator<Game> iterator() {
+        long end = size();
+        return new Iterator<>() {
+            private long next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+            
+            @Override
+            public Game next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return get(next++);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to read game " + (next - 1), e);
+                }
+            }
+        };
+    }
+    
+    public Stream<Game> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size(),
+                                                             Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Forces every appended game to disk, records before the index.
+     */
+    public synchronized void sync() throws IOException {
+        data.force(false);
+        index.force(false);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (!data.isOpen()) return;
+        try {
+            sync();
+        } finally {
+            segments = new MappedByteBuffer[0];
+            offsets = null;
+            try {
+                data.close();
+            } finally {
+                index.close();
+            }
+        }
+    }
+    
+    private static long offsetPosition(long id) {
+        return HEADER_BYTES + id * OFFSET_BYTES;
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
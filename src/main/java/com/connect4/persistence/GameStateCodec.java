@@ -0,0 +1,149 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameState;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of a {@link GameState}, written field by field
+ * through a {@link ByteBuffer} so no reflection is involved.
+ *
+ * Layout, big-endian: magic, version, rows, columns, side to move, one
+ * bitmask per player with bit {@code col * rows + h} for the cell {@code h}
+ * rows above the bottom (one long for the standard board), both scores, the
+ * difficulty, the timestamp in UTC milliseconds and the game mode as
+ * length-prefixed UTF-8. A standard game takes under 60 bytes, against
+ * several hundred as JSON.
+ */
+public final class GameStateCodec {
+    static final int MAGIC = 0x43344753; // "C4GS"
+    static final int VERSION = 1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int NO_MODE = -1;
+    private static final int HEADER_BYTES = 8;
+    
+    private GameStateCodec() {
+    }
+    
+    /**
+     * Encodes {@code state} into a new buffer, ready to be written.
+     */
+    public static ByteBuffer encode(GameState state) {
+        int[][] board = state.getBoard();
+        int rows = board.length;
+        int cols = rows == 0 ? 0 : board[0].length;
+        if (rows > 255 || cols > 255) {
+            throw new IllegalArgumentException("Board too large to encode: " + rows + "x" + cols);
+        }
+        byte[] mode = state.getGameMode() == null ? null : state.getGameMode().getBytes(StandardCharsets.UTF_8);
+        if (mode != null && mode.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Game mode too long to encode");
+        }
+        int words = words(rows, cols);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + words * 2 * Long.BYTES + 2 * Integer.BYTES
+                                                + 1 + Long.BYTES + Short.BYTES + (mode == null ? 0 : mode.length));
+        buffer.putInt(MAGIC)
+              .put((byte) VERSION)
+              .put((byte) rows)
+              .put((byte) cols)
+              .put((byte) state.getCurrentPlayer());
+        for (int player = 1; player <= 2; player++) {
+            long[] mask = new long[words];
+            for (int row = 0; row < rows; row++) {
+                if (board[row].length != cols) {
+                    throw new IllegalArgumentException("Board rows differ in length");
+                }
+                for (int col = 0; col < cols; col++) {
+                    if (board[row][col] == player) {
+                        int bit = col * rows + rows - 1 - row;
+                        mask[bit >>> 6] |= 1L << bit;
+                    }
+                }
+            }
+            for (long word : mask) {
+                buffer.putLong(word);
+            }
+        }
+        buffer.putInt(state.getPlayer1Score())
+              .putInt(state.getPlayer2Score())
+              .put((byte) state.getDifficulty());
+        LocalDateTime timestamp = state.getTimestamp();
+        buffer.putLong(timestamp == null ? NO_TIMESTAMP : timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+        if (mode == null) {
+            buffer.putShort((short) NO_MODE);
+        } else {
+            buffer.putShort((short) mode.length).put(mode);
+        }
+        return buffer.flip();
+    }
+    
+    /**
+     * Decodes a state from the buffer's remaining bytes.
+     *
+     * @throws IOException if the bytes are not a save, are truncated, or come from a newer version
+     */
+    public static GameState decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary save");
+            }
+            int version = buffer.get();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported save version " + version);
+            }
+            int rows = Byte.toUnsignedInt(buffer.get());
+            int cols = Byte.toUnsignedInt(buffer.get());
+            int currentPlayer = buffer.get();
+            
+            int words = words(rows, cols);
+            long[] player1 = new long[words];
+            long[] player2 = new long[words];
+            for (int i = 0; i < words; i++) {
+                player1[i] = buffer.getLong();
+            }
+            for (int i = 0; i < words; i++) {
+                player2[i] = buffer.getLong();
+                if ((player1[i] & player2[i]) != 0) {
+                    throw new IOException("Corrupt save: a cell belongs to both players");
+                }
+            }
+            int[][] board = new int[rows][cols];
+            for (int col = 0; col < cols; col++) {
+                for (int h = 0; h < rows; h++) {
+                    int bit = col * rows + h;
+                    long mask = 1L << bit;
+                    board[rows - 1 - h][col] = (player1[bit >>> 6] & mask) != 0 ? 1
+                                             : (player2[bit >>> 6] & mask) != 0 ? 2 : 0;
+                }
+            }
+            
+            int player1Score = buffer.getInt();
+            int player2Score = buffer.getInt();
+            int difficulty = buffer.get();
+            long millis = buffer.getLong();
+            LocalDateTime timestamp = millis == NO_TIMESTAMP ? null
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+            int modeLength = buffer.getShort();
+            String mode = null;
+            if (modeLength != NO_MODE) {
+                byte[] bytes = new byte[modeLength];
+                buffer.get(bytes);
+                mode = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new GameState(board, currentPlayer, player1Score, player2Score, timestamp, mode, difficulty);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Truncated binary save", e);
+        }
+    }
+    
+    private static int words(int rows, int cols) {
+        return Math.max(1, (rows * cols + 63) >>> 6);
+    }
+}
@@ -0,0 +1,251 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.GameState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Append-only record of one game: a byte per move, with a full
+ * {@link GameStateCodec} checkpoint at the start, every
+ * {@link #CHECKPOINT_INTERVAL} moves and whenever the game changes other
+ * than by a move (new scores, a loaded board). Replaying starts from the
+ * last checkpoint, so a save costs one append however long the game is.
+ *
+ * Appends reach the disk in batches: the channel is forced after every
+ * {@code syncEvery} records and on {@link #close()}. A crash can lose the
+ * unforced tail, and a record torn by the crash is ignored on replay.
+ *
+ * File layout: magic, version, rows, columns and line length, then records.
+ * A record is a column (0-127) for a move, or {@link #CHECKPOINT} followed
+ * by a length and the encoded state.
+ */
+public final class MoveJournal implements Closeable {
+    public static final String EXTENSION = ".c4j";
+    static final int MAGIC = 0x43344D4A; // "C4MJ"
+    static final int VERSION = 1;
+    static final int CHECKPOINT_INTERVAL = 16;
+    private static final byte CHECKPOINT = (byte) 0x80;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_COLUMNS = 128;
+    
+    private final FileChannel channel;
+    private final int syncEvery;
+    private final ByteBuffer moveBuffer = ByteBuffer.allocate(1);
+    private GameBoard board;
+    private int player1Score;
+    private int player2Score;
+    private String gameMode;
+    private int difficulty;
+    private int movesSinceCheckpoint;
+    private int unsynced;
+    
+    private MoveJournal(FileChannel channel, int syncEvery) {
+        this.channel = channel;
+        this.syncEvery = syncEvery;
+    }
+    
+    /**
+     * Starts a journal at {@code file}, replacing any existing one, with a
+     * checkpoint of the game as it stands.
+     *
+     * @param syncEvery records between forcing the file to disk; 1 forces every append
+     */
+    public static MoveJournal create(Path file, GameBoard board, int player1Score, int player2Score,
+                                     String gameMode, int difficulty, int syncEvery) throws IOException {
+        if (board.getCols() > MAX_COLUMNS || board.getRows() > 255 || board.getConnect() > 255) {
+            throw new IllegalArgumentException("Board too large to journal");
+        }
+        if (syncEvery < 1) {
+            throw new IllegalArgumentException("Sync interval must be positive, got " + syncEvery);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING);
+        MoveJournal journal = new MoveJournal(channel, syncEvery);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC)
+                  .put((byte) VERSION)
+                  .put((byte) board.getRows())
+                  .put((byte) board.getCols())
+                  .put((byte) board.getConnect());
+            journal.write(header.flip());
+            journal.checkpoint(board, player1Score, player2Score, gameMode, difficulty);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+    
+    /**
+     * Brings the journal up to date with {@code board}: appends the moves
+     * played since the last record, or writes a checkpoint when the game
+     * changed in some other way or a checkpoint is due.
+     */
+    public synchronized void record(GameBoard board, int player1Score, int player2Score,
+                                    String gameMode, int difficulty) throws IOException {
+        if (!sameShape(board) || player1Score != this.player1Score || player2Score != this.player2Score
+                || !Objects.equals(gameMode, this.gameMode) || difficulty != this.difficulty) {
+            checkpoint(board, player1Score, player2Score, gameMode, difficulty);
+            return;
+        }
+        
+        // Only moves that continue the journaled game may be appended; a
+        // different game with the right piece count gets a checkpoint instead
+        int[] history = board.getMoveHistory();
+        int[] journaled = this.board.getMoveHistory();
+        int start = history.length - (board.getMoveCount() - this.board.getMoveCount());
+        if (start > history.length || start != journaled.length
+                || !Arrays.equals(history, 0, start, journaled, 0, start)
+                || !continues(history, start, board)) {
+            checkpoint(board, player1Score, player2Score, gameMode, difficulty);
+            return;
+        }
+        for (int i = start; i < history.length; i++) {
+            if (movesSinceCheckpoint >= CHECKPOINT_INTERVAL) break;
+            appendMove(history[i]);
+        }
+        // Anything else, e.g. a turn handed over without a move, needs the full state
+        if (this.board.getPositionKey() != board.getPositionKey()) {
+            checkpoint(board, player1Score, player2Score, gameMode, difficulty);
+        }
+    }
+    
+    /**
+     * Whether playing {@code history} from {@code start} on the journaled
+     * position is legal and arrives at {@code board}.
+     */
+    private boolean continues(int[] history, int start, GameBoard board) {
+        GameBoard position = new GameBoard(this.board);
+        for (int i = start; i < history.length; i++) {
+            int col = history[i];
+            if (col < 0 || col >= position.getCols() || position.isColumnFull(col)) return false;
+            position.makeMove(col);
+        }
+        return position.getPositionKey() == board.getPositionKey();
+    }
+    
+    private void appendMove(int col) throws IOException {
+        board.makeMove(col);
+        moveBuffer.clear();
+        moveBuffer.put((byte) col).flip();
+        write(moveBuffer);
+        movesSinceCheckpoint++;
+    }
+    
+    private void checkpoint(GameBoard board, int player1Score, int player2Score,
+                            String gameMode, int difficulty) throws IOException {
+        ByteBuffer state = GameStateCodec.encode(new GameState(board, player1Score, player2Score,
+                                                               gameMode, difficulty));
+        ByteBuffer record = ByteBuffer.allocate(1 + Integer.BYTES + state.remaining());
+        record.put(CHECKPOINT).putInt(state.remaining()).put(state);
+        write(record.flip());
+        
+        this.board = new GameBoard(board);
+        this.player1Score = player1Score;
+        this.player2Score = player2Score;
+        this.gameMode = gameMode;
+        this.difficulty = difficulty;
+        movesSinceCheckpoint = 0;
+    }
+    
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+    
+    private boolean sameShape(GameBoard other) {
+        return other.getRows() == board.getRows() && other.getCols() == board.getCols()
+               && other.getConnect() == board.getConnect();
+    }
+    
+    /**
+     * Forces every record appended so far to disk.
+     */
+    public synchronized void sync() throws IOException {
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+    
+    /**
+     * Number of pieces on the board as of the last record.
+     */
+    public synchronized int getMoveCount() {
+        return board.getMoveCount();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                sync();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+    
+    /**
+     * Rebuilds the game from the last checkpoint and the moves after it.
+     * Its timestamp is the last checkpoint's.
+     *
+     * @throws IOException if the file is not a journal or a record is invalid
+     */
+    public static GameState replay(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a move journal: " + file);
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + file);
+        }
+        int rows = Byte.toUnsignedInt(buffer.get());
+        int cols = Byte.toUnsignedInt(buffer.get());
+        int connect = Byte.toUnsignedInt(buffer.get());
+        
+        GameBoard board = new GameBoard(rows, cols, connect);
+        GameState checkpoint = null;
+        while (buffer.hasRemaining()) {
+            byte tag = buffer.get();
+            if (tag == CHECKPOINT) {
+                if (buffer.remaining() < Integer.BYTES) break;
+                int length = buffer.getInt();
+                // A checkpoint torn by a crash ends the journal
+                if (length < 0 || buffer.remaining() < length) break;
+                ByteBuffer state = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                checkpoint = GameStateCodec.decode(state);
+                board.loadBoard(checkpoint.getBoard());
+                board.setCurrentPlayer(checkpoint.getCurrentPlayer());
+            } else if (checkpoint == null || tag < 0 || tag >= cols || board.isColumnFull(tag)) {
+                throw new IOException("Corrupt move journal: " + file);
+            } else {
+                board.makeMove(tag);
+            }
+        }
+        if (checkpoint == null) {
+            throw new IOException("Move journal has no checkpoint: " + file);
+        }
+        LocalDateTime timestamp = checkpoint.getTimestamp();
+        return new GameState(board.getBoard(), board.getCurrentPlayer(), checkpoint.getPlayer1Score(),
+                             checkpoint.getPlayer2Score(), timestamp, checkpoint.getGameMode(),
+                             checkpoint.getDifficulty());
+    }
+}
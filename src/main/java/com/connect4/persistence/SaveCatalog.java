@@ -0,0 +1,348 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Index of the saves in one directory, kept in a single small file so
+ * listing saves is one read plus an existence check per entry instead of
+ * opening every save.
+ *
+ * Every change rewrites the catalog to a temporary file, forces it and
+ * renames it over the old one, so readers see either the old or the new
+ * catalog, never a mix. The file ends in a CRC32 of its contents. A catalog
+ * that is missing or fails the check is rebuilt by describing each file in
+ * the directory; that is the only time saves are opened.
+ *
+ * A save and its entry change in a fixed order, a new entry before its file
+ * and a deleted file before its entry, so a crash in between can only leave
+ * an entry whose file is missing. Listing describes another file of the same
+ * save in its place, such as the older format a new save was replacing, and
+ * drops the entry if there is none.
+ */
+public final class SaveCatalog {
+    public static final String FILE_NAME = "catalog.c4i";
+    static final int MAGIC = 0x43345349; // "C4SI"
+    static final int VERSION = 1;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    // Catalogs of one directory can be open in several services at once
+    private static final Object LOCK = new Object();
+    
+    /**
+     * What a listing shows about one save.
+     *
+     * @param location file holding the save, relative to the catalog's directory
+     */
+    public record Entry(String name, LocalDateTime timestamp, String gameMode, int moveCount, long size,
+                        String location) {
+        
+        /**
+         * Describes {@code state}, saved as {@code file}. The file's modification
+         * time stands in for a missing timestamp.
+         */
+        public static Entry of(String name, GameState state, Path file) throws IOException {
+            LocalDateTime timestamp = state.getTimestamp();
+            if (timestamp == null) {
+                timestamp = LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(),
+                                                    ZoneId.systemDefault());
+            }
+            return new Entry(name, timestamp, state.getGameMode(), moveCount(state), Files.size(file),
+                             file.getFileName().toString());
+        }
+        
+        /**
+         * Describes {@code state}, about to be saved as {@code location} in
+         * {@code size} bytes. The current time stands in for a missing timestamp.
+         */
+        public static Entry of(String name, GameState state, String location, long size) {
+            LocalDateTime timestamp = state.getTimestamp() == null ? LocalDateTime.now() : state.getTimestamp();
+            return new Entry(name, timestamp, state.getGameMode(), moveCount(state), size, location);
+        }
+        
+        private static int moveCount(GameState state) {
+            int moves = 0;
+            for (int[] row : state.getBoard()) {
+                for (int cell : row) {
+                    if (cell != 0) moves++;
+                }
+            }
+            return moves;
+        }
+    }
+    
+    /**
+     * Turns a file in the directory into its entry when rebuilding.
+     */
+    @FunctionalInterface
+    public interface Describer {
+        /**
+         * @return the file's entry, or null if it is not a save
+         * @throws IOException if the file cannot be read, in which case it is left out
+         */
+        Entry describe(Path file) throws IOException;
+    }
+    
+    /**
+     * A change to the save files that must happen together with a change to
+     * the catalog.
+     */
+    @FunctionalInterface
+    public interface FileChange {
+        void apply() throws IOException;
+    }
+    
+    private final Path directory;
+    private final Path file;
+    private final Describer describer;
+    
+    public SaveCatalog(Path directory, Describer describer) {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+        this.describer = describer;
+    }
+    
+    /**
+     * Every entry whose file exists, by name.
+     */
+    public List<Entry> list() throws IOException {
+        synchronized (LOCK) {
+            Map<String, Entry> entries = load();
+            boolean changed = false;
+            for (Entry entry : new ArrayList<>(entries.values())) {
+                if (Files.exists(directory.resolve(entry.location()))) continue;
+                Entry replacement = scan(fileName -> fileName.startsWith(entry.name() + ".")).get(entry.name());
+                if (replacement == null) {
+                    entries.remove(entry.name());
+                } else {
+                    entries.put(entry.name(), replacement);
+                }
+                changed = true;
+            }
+            if (changed) {
+                store(entries);
+            }
+            return new ArrayList<>(entries.values());
+        }
+    }
+    
+    /**
+     * Entries newest first, e.g. for a load dialog.
+     */
+    public List<Entry> listNewestFirst() throws IOException {
+        List<Entry> entries = list();
+        entries.sort(Comparator.comparing(Entry::timestamp, Comparator.nullsLast(Comparator.reverseOrder())));
+        return entries;
+    }
+    
+    /**
+     * Adds {@code entry}, replacing any entry of the same name.
+     */
+    public void put(Entry entry) throws IOException {
+        put(entry, () -> { });
+    }
+    
+    /**
+     * Adds {@code entry}, then applies {@code change}, which puts its file in
+     * place. The entry is taken back if the change fails.
+     */
+    public void put(Entry entry, FileChange change) throws IOException {
+        synchronized (LOCK) {
+            Map<String, Entry> entries = load();
+            Entry previous = entries.put(entry.name(), entry);
+            store(entries);
+            try {
+                change.apply();
+            } catch (IOException | RuntimeException e) {
+                if (previous == null) {
+                    entries.remove(entry.name());
+                } else {
+                    entries.put(entry.name(), previous);
+                }
+                store(entries);
+                throw e;
+            }
+        }
+    }
+    
+    public void remove(String name) throws IOException {
+        remove(name, () -> { });
+    }
+    
+    /**
+     * Applies {@code change}, which deletes the save's files, then removes its
+     * entry. The entry stays if the change fails.
+     */
+    public void remove(String name, FileChange change) throws IOException {
+        synchronized (LOCK) {
+            change.apply();
+            Map<String, Entry> entries = load();
+            if (entries.remove(name) != null) {
+                store(entries);
+            }
+        }
+    }
+    
+    /**
+     * Replaces the catalog with one describing the directory as it is now.
+     */
+    public void rebuild() throws IOException {
+        synchronized (LOCK) {
+            store(scan());
+        }
+    }
+    
+    private Map<String, Entry> load() throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            Map<String, Entry> entries = scan();
+            store(entries);
+            return entries;
+        }
+        Map<String, Entry> entries = decode(bytes);
+        if (entries == null) {
+            entries = scan();
+            store(entries);
+        }
+        return entries;
+    }
+    
+    private Map<String, Entry> scan() throws IOException {
+        return scan(fileName -> true);
+    }
+    
+    private Map<String, Entry> scan(Predicate<String> fileNames) throws IOException {
+        Map<String, Entry> entries = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path candidate : (Iterable<Path>) files::iterator) {
+                String fileName = candidate.getFileName().toString();
+                if (fileName.startsWith(FILE_NAME) || !fileNames.test(fileName) || !Files.isRegularFile(candidate)) {
+                    continue;
+                }
+                try {
+                    Entry entry = describer.describe(candidate);
+                    if (entry != null) {
+                        entries.put(entry.name(), entry);
+                    }
+                } catch (IOException e) {
+                    // An unreadable save stays out of the listing
+                }
+            }
+        }
+        return entries;
+    }
+    
+    private void store(Map<String, Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            writeString(out, entry.name());
+            out.writeLong(entry.timestamp() == null ? NO_TIMESTAMP
+                                                    : entry.timestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+            writeString(out, entry.gameMode());
+            out.writeInt(entry.moveCount());
+            out.writeLong(entry.size());
+            writeString(out, entry.location());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        
+        Path temp = directory.resolve(FILE_NAME + TEMP_SUFFIX);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Entries in {@code bytes}, or null if they are not an intact catalog.
+     */
+    private static Map<String, Entry> decode(byte[] bytes) {
+        if (bytes.length < Integer.BYTES) return null;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(bytes.length - Integer.BYTES) != (int) crc.getValue()) return null;
+        
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) return null;
+            int count = buffer.getInt();
+            Map<String, Entry> entries = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                long millis = buffer.getLong();
+                LocalDateTime timestamp = millis == NO_TIMESTAMP ? null
+                        : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+                String mode = readString(buffer);
+                int moveCount = buffer.getInt();
+                long size = buffer.getLong();
+                String location = readString(buffer);
+                entries.put(name, new Entry(name, timestamp, mode, moveCount, size, location));
+            }
+            return entries;
+        } catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Catalog field too long");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length == -1) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
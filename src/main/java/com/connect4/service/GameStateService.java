@@ -2,32 +2,109 @@ package com.connect4.service;
 
 import com.connect4.model.GameBoard;
 import com.connect4.model.GameState;
+import com.connect4.persistence.GameStateCodec;
+import com.connect4.persistence.MoveJournal;
+import com.connect4.persistence.SaveCatalog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Saves and loads games in one directory. New saves use the directory's
+ * {@link SaveFormat}, but saves in either format can be loaded, so
+ * directories written before the binary format existed keep working. JSON
+ * also serves to import and export single games.
+ *
+ * Autosaves go to a {@link MoveJournal} per game, so each one appends the
+ * latest moves instead of rewriting the whole game. They are written behind
+ * on a single background thread, so callers such as the FX thread never
+ * wait on the disk. While one is being written, later autosaves of the same
+ * game collapse into the newest. {@link #startNewGame()} marks where one game
+ * ends and the next begins. Other saves and exports, in either format, are
+ * written to a temporary file, forced to disk and moved into place, so a
+ * crash never leaves a half-written save.
+ *
+ * Listing goes through the directory's {@link SaveCatalog}, which every save
+ * and delete keeps current, changing the file and its entry in the order the
+ * catalog recovers from. A journal's entry is refreshed when the journal
+ * is closed rather than on every append.
+ */
 public class GameStateService {
     private static final Logger logger = LoggerFactory.getLogger(GameStateService.class);
     private static final String SAVE_DIR = "saved_games";
-    private static final String SAVE_FILE_EXTENSION = ".json";
+    private static final String AUTOSAVE_PREFIX = "autosave_";
+    private static final int JOURNAL_SYNC_INTERVAL = 8;
+    private static final String TEMP_SUFFIX = ".tmp";
+    
+    private record AutoSave(long game, GameBoard board, int player1Score, int player2Score, String gameMode,
+                            int difficulty) { }
+    
+    public enum SaveFormat {
+        JSON(".json"),
+        BINARY(".c4s");
+        
+        private final String extension;
+        
+        SaveFormat(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
     
     private final ObjectMapper objectMapper;
     private final Path saveDirectory;
+    private final SaveFormat format;
+    private final SaveCatalog catalog;
+    private MoveJournal journal;
+    private Path journalFile;
+    private SaveCatalog.Entry journalEntry;
+    private long journalGame;
+    private final ExecutorService writer;
+    private final Thread shutdownHook;
+    private final Deque<AutoSave> pendingAutoSaves = new ArrayDeque<>();
+    private boolean drainScheduled;
+    private long game;
     
     public GameStateService() {
-        this.objectMapper = new ObjectMapper();
-        this.saveDirectory = Paths.get(SAVE_DIR);
+        this(Paths.get(SAVE_DIR), SaveFormat.BINARY);
+    }
+    
+    public GameStateService(Path saveDirectory, SaveFormat format) {
+        // Picks up the java.time module, which GameState's timestamp needs
+        this.objectMapper = new ObjectMapper().findAndRegisterModules();
+        this.saveDirectory = saveDirectory;
+        this.format = format;
         createSaveDirectory();
+        this.catalog = new SaveCatalog(saveDirectory, this::describe);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.shutdownHook = new Thread(this::close, "autosave-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
     
     private void createSaveDirectory() {
@@ -46,12 +123,8 @@ public class GameStateService {
         try {
             GameState gameState = new GameState(gameBoard, player1Score, player2Score, 
                                               gameMode, difficulty);
-            
-            String saveFileName = filename + SAVE_FILE_EXTENSION;
-            File saveFile = saveDirectory.resolve(saveFileName).toFile();
-            
-            objectMapper.writeValue(saveFile, gameState);
-            logger.info("Game saved successfully: {}", saveFileName);
+            write(gameState, filename);
+            logger.info("Game saved successfully: {}", filename);
             
         } catch (IOException e) {
             logger.error("Failed to save game", e);
@@ -59,15 +132,89 @@ public class GameStateService {
         }
     }
     
+    /**
+     * Writes {@code gameState} in this directory's format, replacing any save
+     * of the same name in the other format.
+     */
+    private void write(GameState gameState, String filename) throws IOException {
+        Path saveFile = saveDirectory.resolve(filename + format.getExtension());
+        Path temp = saveDirectory.resolve(filename + format.getExtension() + TEMP_SUFFIX);
+        ByteBuffer buffer = format == SaveFormat.BINARY ? GameStateCodec.encode(gameState)
+                : ByteBuffer.wrap(objectMapper.writeValueAsBytes(gameState));
+        writeForced(temp, buffer);
+        
+        SaveCatalog.Entry entry = SaveCatalog.Entry.of(filename, gameState, saveFile.getFileName().toString(),
+                                                       Files.size(temp));
+        catalog.put(entry, () -> {
+            moveIntoPlace(temp, saveFile);
+            for (SaveFormat other : SaveFormat.values()) {
+                if (other != format) {
+                    Files.deleteIfExists(saveDirectory.resolve(filename + other.getExtension()));
+                }
+            }
+        });
+    }
+    
+    /**
+     * Writes {@code buffer} to {@code temp} and forces it to disk, so that
+     * moving it into place can never expose a partly written file.
+     */
+    private static void writeForced(Path temp, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+    
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Catalog entry for a file found when the catalog is rebuilt.
+     */
+    private SaveCatalog.Entry describe(Path file) throws IOException {
+        String name = saveName(file.getFileName().toString());
+        return name == null ? null : SaveCatalog.Entry.of(name, read(file), file);
+    }
+    
+    private GameState read(Path saveFile) throws IOException {
+        if (saveFile.toString().endsWith(MoveJournal.EXTENSION)) {
+            return MoveJournal.replay(saveFile);
+        }
+        if (saveFile.toString().endsWith(SaveFormat.BINARY.getExtension())) {
+            return GameStateCodec.decode(ByteBuffer.wrap(Files.readAllBytes(saveFile)));
+        }
+        return objectMapper.readValue(saveFile.toFile(), GameState.class);
+    }
+    
+    private Path findSave(String filename) {
+        for (String extension : saveExtensions()) {
+            Path saveFile = saveDirectory.resolve(filename + extension);
+            if (Files.exists(saveFile)) {
+                return saveFile;
+            }
+        }
+        return null;
+    }
+    
     public GameState loadGame(String filename) {
         try {
-            File saveFile = saveDirectory.resolve(filename + SAVE_FILE_EXTENSION).toFile();
+            Path saveFile = findSave(filename);
             
-            if (!saveFile.exists()) {
+            if (saveFile == null) {
                 throw new RuntimeException("Save file not found: " + filename);
             }
             
-            GameState gameState = objectMapper.readValue(saveFile, GameState.class);
+            GameState gameState = read(saveFile);
             logger.info("Game loaded successfully: {}", filename);
             
             return gameState;
@@ -78,29 +225,83 @@ public class GameStateService {
         }
     }
     
+    /**
+     * Copies a save out as JSON, e.g. to move it to another installation.
+     * Like a save, it goes through a temporary file next to {@code target}.
+     */
+    public void exportJson(String filename, Path target) {
+        try {
+            Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+            writeForced(temp, ByteBuffer.wrap(objectMapper.writeValueAsBytes(loadGame(filename))));
+            moveIntoPlace(temp, target);
+            logger.info("Game exported: {} to {}", filename, target);
+        } catch (IOException e) {
+            logger.error("Failed to export game", e);
+            throw new RuntimeException("Failed to export game", e);
+        }
+    }
+    
+    /**
+     * Adds a JSON game as a save in this directory's format.
+     */
+    public void importJson(Path source, String filename) {
+        try {
+            write(objectMapper.readValue(source.toFile(), GameState.class), filename);
+            logger.info("Game imported: {} from {}", filename, source);
+        } catch (IOException e) {
+            logger.error("Failed to import game", e);
+            throw new RuntimeException("Failed to import game", e);
+        }
+    }
+    
     public List<String> getSavedGames() {
         try {
-            return Files.list(saveDirectory)
-                    .filter(path -> path.toString().endsWith(SAVE_FILE_EXTENSION))
-                    .map(path -> path.getFileName().toString())
-                    .map(filename -> filename.replace(SAVE_FILE_EXTENSION, ""))
-                    .sorted()
+            return catalog.list().stream()
+                    .map(SaveCatalog.Entry::name)
                     .collect(Collectors.toList());
-                    
+            
         } catch (IOException e) {
             logger.error("Failed to list saved games", e);
             return new ArrayList<>();
         }
     }
     
+    /**
+     * Save name of a file in the save directory, or null if it is not a save.
+     */
+    private static String saveName(String fileName) {
+        for (String extension : saveExtensions()) {
+            if (fileName.endsWith(extension)) {
+                return fileName.substring(0, fileName.length() - extension.length());
+            }
+        }
+        return null;
+    }
+    
+    private static List<String> saveExtensions() {
+        List<String> extensions = new ArrayList<>();
+        for (SaveFormat candidate : SaveFormat.values()) {
+            extensions.add(candidate.getExtension());
+        }
+        extensions.add(MoveJournal.EXTENSION);
+        return extensions;
+    }
+    
     public void deleteSave(String filename) {
         try {
-            File saveFile = saveDirectory.resolve(filename + SAVE_FILE_EXTENSION).toFile();
-            
-            if (saveFile.exists()) {
-                Files.delete(saveFile.toPath());
-                logger.info("Save file deleted: {}", filename);
+            // Outside the catalog change, since the journal's writer takes the catalog while holding this
+            for (String extension : saveExtensions()) {
+                if (saveDirectory.resolve(filename + extension).equals(journalFile)) {
+                    closeJournal();
+                }
             }
+            catalog.remove(filename, () -> {
+                for (String extension : saveExtensions()) {
+                    if (Files.deleteIfExists(saveDirectory.resolve(filename + extension))) {
+                        logger.info("Save file deleted: {}", filename + extension);
+                    }
+                }
+            });
             
         } catch (IOException e) {
             logger.error("Failed to delete save file", e);
@@ -108,26 +309,174 @@ public class GameStateService {
         }
     }
     
+    /**
+     * Marks the start of a new or loaded game: the next autosave starts a new
+     * journal instead of continuing the current one.
+     */
+    public void startNewGame() {
+        synchronized (pendingAutoSaves) {
+            game++;
+        }
+    }
+    
+    /**
+     * Queues the game's progress to be appended to its journal, and returns
+     * without waiting for the disk.
+     */
     public void autoSave(GameBoard gameBoard, int player1Score, int player2Score,
-                        String gameMode, int difficulty) {
-        String autoSaveName = "autosave_" + System.currentTimeMillis();
-        saveGame(gameBoard, player1Score, player2Score, gameMode, difficulty, autoSaveName);
+                         String gameMode, int difficulty) {
+        GameBoard board = new GameBoard(gameBoard);
+        synchronized (pendingAutoSaves) {
+            if (writer.isShutdown()) {
+                throw new IllegalStateException("Game state service is closed");
+            }
+            AutoSave save = new AutoSave(game, board, player1Score, player2Score, gameMode, difficulty);
+            AutoSave last = pendingAutoSaves.peekLast();
+            if (last != null && last.game() == save.game()) {
+                pendingAutoSaves.pollLast();
+            }
+            pendingAutoSaves.addLast(save);
+            if (drainScheduled) return;
+            drainScheduled = true;
+        }
+        writer.execute(this::drainAutoSaves);
+    }
+    
+    /**
+     * Autosaves waiting for the writer thread, not counting one being written.
+     */
+    public int getQueueDepth() {
+        synchronized (pendingAutoSaves) {
+            return pendingAutoSaves.size();
+        }
+    }
+    
+    private void drainAutoSaves() {
+        while (true) {
+            AutoSave save;
+            synchronized (pendingAutoSaves) {
+                save = pendingAutoSaves.pollFirst();
+                if (save == null) {
+                    drainScheduled = false;
+                    return;
+                }
+            }
+            writeAutoSave(save);
+        }
+    }
+    
+    private synchronized void writeAutoSave(AutoSave save) {
+        GameBoard gameBoard = save.board();
+        try {
+            if (journal == null || !Files.exists(journalFile) || save.game() != journalGame) {
+                closeJournal();
+                long stamp = System.currentTimeMillis();
+                Path file = saveDirectory.resolve(AUTOSAVE_PREFIX + stamp + MoveJournal.EXTENSION);
+                while (Files.exists(file)) {
+                    file = saveDirectory.resolve(AUTOSAVE_PREFIX + ++stamp + MoveJournal.EXTENSION);
+                }
+                journal = MoveJournal.create(file, gameBoard, save.player1Score(), save.player2Score(),
+                                             save.gameMode(), save.difficulty(), JOURNAL_SYNC_INTERVAL);
+                journalFile = file;
+                journalGame = save.game();
+                journalEntry = SaveCatalog.Entry.of(saveName(file.getFileName().toString()),
+                                                    new GameState(gameBoard, save.player1Score(),
+                                                                  save.player2Score(), save.gameMode(),
+                                                                  save.difficulty()), file);
+                catalog.put(journalEntry);
+                logger.info("Started auto-save journal: {}", file.getFileName());
+            } else {
+                journal.record(gameBoard, save.player1Score(), save.player2Score(), save.gameMode(),
+                               save.difficulty());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to auto-save game", e);
+            closeJournal();
+        }
+    }
+    
+    /**
+     * Waits until every queued autosave is written and forced to disk.
+     */
+    public void flush() {
+        if (writer.isShutdown()) return;
+        try {
+            writer.submit(() -> {
+                syncJournal();
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Failed to flush auto-saves", e.getCause());
+        }
+    }
+    
+    private synchronized void syncJournal() throws IOException {
+        if (journal != null) {
+            journal.sync();
+        }
+    }
+    
+    /**
+     * Writes every queued autosave, then stops the writer and closes the
+     * journal. Runs on exit if not called before.
+     */
+    public void close() {
+        synchronized (pendingAutoSaves) {
+            if (writer.isShutdown()) return;
+            writer.shutdown();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already exiting, and this may be the hook itself
+        }
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeJournal();
+    }
+    
+    private synchronized void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+                if (Files.exists(journalFile)) {
+                    SaveCatalog.Entry entry = journalEntry;
+                    catalog.put(new SaveCatalog.Entry(entry.name(), entry.timestamp(), entry.gameMode(),
+                                                      journal.getMoveCount(), Files.size(journalFile),
+                                                      entry.location()));
+                }
+            } catch (IOException e) {
+                logger.error("Failed to close auto-save journal", e);
+            }
+            journal = null;
+            journalFile = null;
+            journalEntry = null;
+        }
+    }
+    
+    private synchronized String currentJournalName() {
+        return journalEntry == null ? null : journalEntry.name();
     }
     
     public void cleanupOldAutoSaves(int maxAutoSaves) {
         try {
-            List<File> autoSaves = Files.list(saveDirectory)
-                    .filter(path -> path.getFileName().toString().startsWith("autosave_"))
-                    .map(Path::toFile)
-                    .sorted(Comparator.comparingLong(File::lastModified).reversed())
+            String current = currentJournalName();
+            List<String> autoSaves = catalog.listNewestFirst().stream()
+                    .map(SaveCatalog.Entry::name)
+                    .filter(name -> name.startsWith(AUTOSAVE_PREFIX) && !name.equals(current))
                     .collect(Collectors.toList());
             
             if (autoSaves.size() > maxAutoSaves) {
                 autoSaves.subList(maxAutoSaves, autoSaves.size())
-                        .forEach(file -> {
+                        .forEach(name -> {
                             try {
-                                Files.delete(file.toPath());
-                            } catch (IOException e) {
+                                deleteSave(name);
+                            } catch (RuntimeException e) {
                                 logger.error("Failed to delete old auto-save", e);
                             }
                         });
@@ -1,7 +1,20 @@
 package com.connect4;
 
 import com.connect4.model.GameBoardTest;
+import com.connect4.ai.AIMoveServiceTest;
+import com.connect4.ai.EngineRegistryTest;
+import com.connect4.ai.IncrementalEvaluatorTest;
+import com.connect4.ai.MctsAITest;
 import com.connect4.ai.MinimaxAITest;
+import com.connect4.ai.OpeningBookTest;
+import com.connect4.ai.SolverTest;
+import com.connect4.ai.TournamentTest;
+import com.connect4.ai.TranspositionTableTest;
+import com.connect4.persistence.GameArchiveTest;
+import com.connect4.persistence.GameStateCodecTest;
+import com.connect4.persistence.MoveJournalTest;
+import com.connect4.persistence.SaveCatalogTest;
+import com.connect4.service.GameStateServiceTest;
 import org.junit.platform.engine.discovery.DiscoverySelectors;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
@@ -26,7 +39,20 @@ public class TestRunner {
         LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
             .selectors(
                 selectClass(GameBoardTest.class),
-                selectClass(MinimaxAITest.class)
+                selectClass(MinimaxAITest.class),
+                selectClass(TranspositionTableTest.class),
+                selectClass(SolverTest.class),
+                selectClass(OpeningBookTest.class),
+                selectClass(IncrementalEvaluatorTest.class),
+                selectClass(AIMoveServiceTest.class),
+                selectClass(MctsAITest.class),
+                selectClass(EngineRegistryTest.class),
+                selectClass(TournamentTest.class),
+                selectClass(GameStateCodecTest.class),
+                selectClass(MoveJournalTest.class),
+                selectClass(SaveCatalogTest.class),
+                selectClass(GameArchiveTest.class),
+                selectClass(GameStateServiceTest.class)
             )
             .build();
         
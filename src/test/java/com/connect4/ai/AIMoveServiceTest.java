@@ -0,0 +1,120 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIMoveServiceTest {
+    
+    private AIMoveService service;
+    private GameBoard gameBoard;
+    
+    @BeforeEach
+    void setUp() {
+        service = new AIMoveService(Runnable::run, Duration.ofMillis(300));
+        gameBoard = new GameBoard();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should deliver the same move as a direct search, after the minimum think time")
+    void testDeliversMoveAfterMinimumThinkTime() throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<Integer> move = service.requestMove(new MinimaxAI(2), gameBoard);
+        
+        assertEquals(new MinimaxAI(2).getBestMove(gameBoard), (int) move.get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertFalse(service.isThinking());
+    }
+    
+    @Test
+    @DisplayName("Should cancel a pending request and accept a new one")
+    void testCancel() throws Exception {
+        MinimaxAI ai = new MinimaxAI(3);
+        CompletableFuture<Integer> first = service.requestMove(ai, gameBoard);
+        assertTrue(service.isThinking());
+        
+        service.cancel();
+        assertTrue(first.isCancelled());
+        assertFalse(service.isThinking());
+        
+        CompletableFuture<Integer> second = service.requestMove(ai, gameBoard);
+        int move = second.get(5, TimeUnit.SECONDS);
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+    }
+    
+    @Test
+    @DisplayName("Should stop a running search early on request")
+    void testStopSearch() throws Exception {
+        MinimaxAI ai = new MinimaxAI(3);
+        CompletableFuture<Integer> move = CompletableFuture.supplyAsync(() -> ai.getBestMove(gameBoard, Duration.ofSeconds(30)));
+        Thread.sleep(100);
+        
+        long start = System.nanoTime();
+        ai.stopSearch();
+        int column = move.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(column >= 0 && column < GameBoard.COLS);
+    }
+    
+    @Test
+    @DisplayName("Should stop pondering when a move is requested")
+    void testMoveRequestStopsPondering() throws Exception {
+        MinimaxAI ai = new MinimaxAI(3);
+        gameBoard.makeMove(3);
+        CompletableFuture<Void> pondering = service.ponder(ai, gameBoard);
+        assertFalse(service.isThinking());
+        
+        gameBoard.makeMove(3);
+        CompletableFuture<Integer> move = service.requestMove(ai, gameBoard);
+        assertTrue(pondering.isCancelled());
+        int column = move.get(5, TimeUnit.SECONDS);
+        assertTrue(column >= 0 && column < GameBoard.COLS);
+    }
+    
+    @Test
+    @DisplayName("Should fail the request, not leave it pending, when the engine throws an error")
+    void testEngineError() throws Exception {
+        AIEngine broken = new AIEngine() {
+            @Override
+            public int getBestMove(GameBoard board, AtomicBoolean stop) {
+                throw new StackOverflowError();
+            }
+            
+            @Override
+            public void ponder(GameBoard board, AtomicBoolean stop) {
+                throw new StackOverflowError();
+            }
+            
+            @Override
+            public SearchResult getLastSearchResult() {
+                return null;
+            }
+            
+            @Override
+            public void stopSearch() {
+            }
+        };
+        CompletableFuture<Void> pondering = service.ponder(broken, gameBoard);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> pondering.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof StackOverflowError);
+        
+        CompletableFuture<Integer> move = service.requestMove(broken, gameBoard);
+        error = assertThrows(ExecutionException.class, () -> move.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof StackOverflowError);
+    }
+}
@@ -0,0 +1,106 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineRegistryTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private EngineRegistry registry;
+    private GameBoard gameBoard;
+    
+    @BeforeEach
+    void setUp() {
+        registry = EngineRegistry.withDefaults(tempDir.resolve("missing.bin"));
+        gameBoard = new GameBoard();
+    }
+    
+    @Test
+    @DisplayName("Should offer the default difficulties weakest first")
+    void testDefaults() {
+        assertEquals(List.of("Easy", "Medium", "Hard", "Expert", "Solver", "Monte Carlo"), registry.getNames());
+        assertEquals("Expert", registry.getName(4));
+        assertEquals(MinimaxAI.SOLVER, registry.getConfig("Solver").level());
+        assertNull(registry.getName(99));
+        assertThrows(IllegalArgumentException.class, () -> registry.getConfig("Impossible"));
+    }
+    
+    @Test
+    @DisplayName("Should back Expert with a timed, deeper search than Hard")
+    void testExpertIsStronger() {
+        MinimaxAI hard = (MinimaxAI) registry.create("Hard");
+        MinimaxAI expert = (MinimaxAI) registry.create("Expert");
+        try {
+            assertNull(hard.getMoveTime());
+            assertEquals(Duration.ofSeconds(2), expert.getMoveTime());
+            assertTrue(expert.getMaxDepth() > hard.getMaxDepth());
+            assertEquals(Runtime.getRuntime().availableProcessors(), expert.getThreads());
+            // No book file, so none is installed
+            assertNull(hard.getOpeningBook());
+        } finally {
+            expert.shutdown();
+        }
+        assertTrue(registry.create("Monte Carlo") instanceof MctsAI);
+    }
+    
+    @Test
+    @DisplayName("Should stop a timed search at the configured depth")
+    void testDepthCapsTimedSearch() {
+        registry.register(new EngineConfig("Capped", 7, EngineConfig.Kind.MINIMAX, 2, Duration.ofSeconds(30),
+                                           1, 1, false));
+        AIEngine engine = registry.create("Capped");
+        
+        long start = System.nanoTime();
+        int move = engine.getBestMove(gameBoard);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+        assertEquals(3, engine.getLastSearchResult().depth());
+    }
+    
+    @Test
+    @DisplayName("Should report a result from every kind of engine")
+    void testEnginesReportResults() {
+        registry.register(new EngineConfig("Quick MCTS", 8, EngineConfig.Kind.MCTS, 0, Duration.ofMillis(100),
+                                           1, 1, false));
+        gameBoard.makeMove(3);
+        for (String name : List.of("Easy", "Quick MCTS")) {
+            AIEngine engine = registry.create(name);
+            try {
+                int move = engine.getBestMove(gameBoard);
+                SearchResult result = engine.getLastSearchResult();
+                assertEquals(move, result.bestMove());
+                assertTrue(result.nodes() > 0);
+                assertFalse(result.principalVariation().isEmpty());
+            } finally {
+                engine.shutdown();
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should install the opening book when the file exists")
+    void testOpeningBook() throws Exception {
+        Path book = tempDir.resolve("book.bin");
+        TreeMap<Long, OpeningBook.Entry> entries = new TreeMap<>();
+        entries.put(gameBoard.getPositionKey(), new OpeningBook.Entry(3, 1));
+        OpeningBook.write(book, entries);
+        
+        EngineRegistry withBook = EngineRegistry.withDefaults(book);
+        MinimaxAI hard = (MinimaxAI) withBook.create("Hard");
+        assertNotNull(hard.getOpeningBook());
+        assertEquals(3, hard.getBestMove(gameBoard));
+        assertNull(((MinimaxAI) withBook.create("Easy")).getOpeningBook());
+    }
+}
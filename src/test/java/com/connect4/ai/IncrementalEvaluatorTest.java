@@ -0,0 +1,124 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalEvaluatorTest {
+    
+    private IncrementalEvaluator evaluator;
+    private GameBoard gameBoard;
+    
+    @BeforeEach
+    void setUp() {
+        evaluator = new IncrementalEvaluator();
+        gameBoard = new GameBoard();
+    }
+    
+    @Test
+    @DisplayName("Should cover all 69 four-cell windows")
+    void testWindowCount() {
+        assertEquals(69, IncrementalEvaluator.WINDOW_COUNT);
+    }
+    
+    @Test
+    @DisplayName("Should match the reference evaluation through random games")
+    void testMatchesReferenceOnPlay() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            gameBoard.reset();
+            evaluator.load(gameBoard);
+            
+            while (!gameBoard.isBoardFull()) {
+                int col = random.nextInt(GameBoard.COLS);
+                if (gameBoard.isColumnFull(col)) continue;
+                
+                evaluator.play(col, gameBoard.getCurrentPlayer());
+                gameBoard.makeMove(col);
+                assertSameEvaluation();
+                if (gameBoard.checkWin(3 - gameBoard.getCurrentPlayer())) break;
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should return to the previous evaluation after undo")
+    void testMatchesReferenceOnUndo() {
+        Random random = new Random(3);
+        int[] moves = new int[GameBoard.ROWS * GameBoard.COLS];
+        int count = 0;
+        while (count < 30) {
+            int col = random.nextInt(GameBoard.COLS);
+            if (gameBoard.isColumnFull(col)) continue;
+            
+            evaluator.play(col, gameBoard.getCurrentPlayer());
+            gameBoard.makeMove(col);
+            moves[count++] = col;
+        }
+        
+        while (count > 0) {
+            int col = moves[--count];
+            gameBoard.unmakeMove(col);
+            evaluator.undo(col, gameBoard.getCurrentPlayer());
+            assertSameEvaluation();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should load an arbitrary board")
+    void testLoad() {
+        int[][] setup = new int[GameBoard.ROWS][GameBoard.COLS];
+        setup[5] = new int[] {1, 2, 1, 1, 1, 2, 2};
+        setup[4] = new int[] {2, 0, 2, 1, 0, 0, 1};
+        setup[3] = new int[] {0, 0, 0, 2, 0, 0, 0};
+        gameBoard.loadBoard(setup);
+        
+        evaluator.load(gameBoard);
+        assertSameEvaluation();
+    }
+    
+    @Test
+    @DisplayName("Should follow a game on a large board")
+    void testLargeBoard() {
+        gameBoard = new GameBoard(10, 11, 5);
+        evaluator.load(gameBoard);
+        Random random = new Random(9);
+        while (!gameBoard.isBoardFull() && !gameBoard.isLastMoveWin()) {
+            int col = random.nextInt(gameBoard.getCols());
+            if (gameBoard.isColumnFull(col)) continue;
+            
+            evaluator.play(col, gameBoard.getCurrentPlayer());
+            gameBoard.makeMove(col);
+            assertSameEvaluation();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should match the reference evaluation with other weights")
+    void testWeights() {
+        EvaluationWeights weights = new EvaluationWeights(1, 9, 0);
+        evaluator = new IncrementalEvaluator(weights);
+        evaluator.load(gameBoard);
+        for (char c : "3342215".toCharArray()) {
+            evaluator.play(c - '0', gameBoard.getCurrentPlayer());
+            gameBoard.makeMove(c - '0');
+            for (int player = 1; player <= 2; player++) {
+                assertEquals(MinimaxAI.evaluateBoard(gameBoard, player, weights), evaluator.evaluate(player));
+            }
+        }
+        assertNotEquals(MinimaxAI.evaluateBoard(gameBoard, 1), evaluator.evaluate(1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new EvaluationWeights(3, EvaluationWeights.MAX_WEIGHT + 1, 2));
+    }
+    
+    private void assertSameEvaluation() {
+        for (int player = 1; player <= 2; player++) {
+            assertEquals(MinimaxAI.evaluateBoard(gameBoard, player), evaluator.evaluate(player));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsAITest {
+    
+    private MctsAI ai;
+    private GameBoard gameBoard;
+    
+    @BeforeEach
+    void setUp() {
+        ai = new MctsAI(Duration.ofMillis(200));
+        gameBoard = new GameBoard();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ai.shutdown();
+    }
+    
+    private void play(String moves) {
+        for (char c : moves.toCharArray()) {
+            gameBoard.makeMove(c - '0');
+        }
+    }
+    
+    @Test
+    @DisplayName("Should take an immediate win")
+    void testTakesWin() {
+        play("001122");
+        assertEquals(3, ai.getBestMove(gameBoard));
+    }
+    
+    @Test
+    @DisplayName("Should block the opponent's immediate win")
+    void testBlocksWin() {
+        play("06152");
+        assertEquals(3, ai.getBestMove(gameBoard));
+    }
+    
+    @Test
+    @DisplayName("Should return legal moves with several threads")
+    void testMultiThreaded() {
+        MctsAI parallel = new MctsAI(Duration.ofMillis(200), 4, 1 << 18);
+        try {
+            play("3333332");
+            int move = parallel.getBestMove(gameBoard);
+            assertTrue(move >= 0 && move < GameBoard.COLS);
+            assertNotEquals(3, move);
+            assertTrue(parallel.getLastPlayouts() > 0);
+        } finally {
+            parallel.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should keep the reached subtree between moves")
+    void testTreeReuse() {
+        int move = ai.getBestMove(gameBoard);
+        gameBoard.makeMove(move);
+        gameBoard.makeMove(move);
+        
+        ai.getBestMove(gameBoard);
+        assertTrue(ai.getRootVisits() > ai.getLastPlayouts());
+    }
+    
+    @Test
+    @DisplayName("Should ponder until stopped and reuse the work")
+    void testPonder() throws Exception {
+        play("3");
+        CompletableFuture<Void> pondering = CompletableFuture.runAsync(() -> ai.ponder(gameBoard));
+        Thread.sleep(100);
+        ai.stopSearch();
+        pondering.get(5, TimeUnit.SECONDS);
+        
+        gameBoard.makeMove(3);
+        ai.getBestMove(gameBoard);
+        assertTrue(ai.getRootVisits() > ai.getLastPlayouts());
+    }
+    
+    @Test
+    @DisplayName("Should stop pondering at half the pool so the next move keeps the work")
+    void testPonderToPoolLimit() throws Exception {
+        MctsAI small = new MctsAI(Duration.ofMillis(200), 2, 1 << 14);
+        try {
+            play("3");
+            // Never stopped, so only the pool limit ends it
+            CompletableFuture.runAsync(() -> small.ponder(gameBoard)).get(10, TimeUnit.SECONDS);
+            
+            gameBoard.makeMove(3);
+            small.getBestMove(gameBoard);
+            assertTrue(small.getRootVisits() > small.getLastPlayouts());
+        } finally {
+            small.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should block a win on a larger board")
+    void testLargeBoard() {
+        gameBoard = new GameBoard(8, 9, 4);
+        play("708172");
+        assertEquals(3, ai.getBestMove(gameBoard));
+    }
+}
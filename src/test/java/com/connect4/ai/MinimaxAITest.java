@@ -5,6 +5,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class MinimaxAITest {
@@ -202,6 +208,208 @@ class MinimaxAITest {
         assertEquals(move1, move2);
     }
     
+    @Test
+    @DisplayName("Should find the winning move within a time budget")
+    void testTimedSearchFindsWin() {
+        int[][] winningSetup = {
+            {0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0},
+            {2, 2, 2, 0, 0, 0, 0}
+        };
+        
+        setupBoard(winningSetup);
+        gameBoard.setCurrentPlayer(2);
+        
+        assertEquals(3, mediumAI.getBestMove(gameBoard, Duration.ofMillis(200)));
+    }
+    
+    @Test
+    @DisplayName("Should stop deepening when the time budget runs out")
+    void testTimedSearchRespectsBudget() {
+        long start = System.nanoTime();
+        int move = hardAI.getBestMove(gameBoard, Duration.ofMillis(100));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+        assertTrue(elapsedMillis < 1000, "search took " + elapsedMillis + " ms");
+    }
+    
+    @Test
+    @DisplayName("Parallel search should find the same tactical moves")
+    void testParallelSearch() {
+        MinimaxAI parallelAI = new MinimaxAI(3, 16, 4);
+        try {
+            assertEquals(4, parallelAI.getThreads());
+            
+            int[][] blockingSetup = {
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {1, 1, 1, 0, 0, 0, 0}
+            };
+            setupBoard(blockingSetup);
+            gameBoard.setCurrentPlayer(2);
+            assertEquals(3, parallelAI.getBestMove(gameBoard));
+            assertEquals(3, parallelAI.getBestMove(gameBoard, Duration.ofMillis(200)));
+            
+            gameBoard.reset();
+            assertEquals(3, parallelAI.getBestMove(gameBoard));
+        } finally {
+            parallelAI.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Lazy SMP search should find the same tactical moves")
+    void testLazySmpSearch() {
+        MinimaxAI lazySmpAI = new MinimaxAI(3, 16, 4, MinimaxAI.ParallelMode.LAZY_SMP);
+        try {
+            assertEquals(4, lazySmpAI.getThreads());
+            
+            int[][] winningSetup = {
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0},
+                {2, 2, 2, 0, 0, 0, 0}
+            };
+            setupBoard(winningSetup);
+            gameBoard.setCurrentPlayer(2);
+            assertEquals(3, lazySmpAI.getBestMove(gameBoard));
+            assertEquals(3, lazySmpAI.getBestMove(gameBoard, Duration.ofMillis(200)));
+            
+            gameBoard.reset();
+            assertEquals(3, lazySmpAI.getBestMove(gameBoard));
+        } finally {
+            lazySmpAI.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Move ordering should prune more of the tree")
+    void testMoveOrderingReducesNodes() {
+        gameBoard.dropPiece(3);
+        gameBoard.switchPlayer();
+        gameBoard.dropPiece(2);
+        gameBoard.switchPlayer();
+        
+        MinimaxAI unordered = new MinimaxAI(3);
+        unordered.setMoveOrdering(MoveOrdering.NONE);
+        unordered.getBestMove(gameBoard);
+        SearchCounters plain = unordered.getLastSearchCounters();
+        
+        MinimaxAI ordered = new MinimaxAI(3);
+        ordered.getBestMove(gameBoard);
+        SearchCounters tuned = ordered.getLastSearchCounters();
+        
+        assertTrue(plain.getNodes() > 0);
+        assertTrue(tuned.getNodes() < plain.getNodes(),
+                   tuned.getNodes() + " nodes with ordering vs " + plain.getNodes() + " without");
+        assertTrue(tuned.getCutoffRate() > 0 && tuned.getCutoffRate() <= 1);
+        assertTrue(tuned.getFirstMoveCutoffRate() >= plain.getFirstMoveCutoffRate());
+    }
+    
+    @Test
+    @DisplayName("Should report every completed depth to listeners")
+    void testSearchListener() {
+        List<SearchResult> results = new ArrayList<>();
+        mediumAI.addSearchListener(results::add);
+        gameBoard.makeMove(3);
+        gameBoard.makeMove(3);
+        
+        int move = mediumAI.getBestMove(gameBoard, Duration.ofMillis(200));
+        
+        assertFalse(results.isEmpty());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).depth());
+        }
+        SearchResult last = mediumAI.getLastSearchResult();
+        assertSame(results.get(results.size() - 1), last);
+        assertEquals(move, last.bestMove());
+        assertEquals(move, (int) last.principalVariation().get(0));
+        assertTrue(last.principalVariation().size() <= last.depth());
+        assertTrue(last.nodes() > 0);
+        assertTrue(last.nodesPerSecond() > 0);
+        assertTrue(last.tableHitRate() > 0 && last.tableHitRate() <= 1);
+        assertTrue(last.effectiveBranchingFactor() > 0);
+    }
+    
+    @Test
+    @DisplayName("Should export a legal principal variation")
+    void testPrincipalVariationIsLegal() {
+        hardAI.getBestMove(gameBoard);
+        SearchResult result = hardAI.getLastSearchResult();
+        assertEquals(7, result.depth());
+        assertTrue(result.principalVariation().size() > 1);
+        
+        GameBoard line = new GameBoard(gameBoard);
+        for (int col : result.principalVariation()) {
+            assertFalse(line.isColumnFull(col));
+            line.makeMove(col);
+        }
+    }
+    
+    @Test
+    @DisplayName("Should reuse pondering work once the opponent replies")
+    void testPonderWarmsReplies() {
+        gameBoard.makeMove(3);
+        gameBoard.makeMove(3);
+        GameBoard reply = new GameBoard(gameBoard);
+        reply.makeMove(2);
+        
+        MinimaxAI coldAI = new MinimaxAI(3);
+        int coldMove = coldAI.getBestMove(reply);
+        long coldNodes = coldAI.getLastSearchCounters().getNodes();
+        
+        hardAI.ponder(gameBoard);
+        assertTrue(hardAI.getLastPonderCounters().getNodes() > 0);
+        assertEquals(coldMove, hardAI.getBestMove(reply));
+        assertTrue(hardAI.getLastSearchCounters().getNodes() * 10 < coldNodes);
+    }
+    
+    @Test
+    @DisplayName("Should honour a stop set before the search begins")
+    void testStopBeforeSearch() {
+        MinimaxAI deepAI = new MinimaxAI(3, 40, 16, 1, MinimaxAI.ParallelMode.YOUNG_BROTHERS_WAIT);
+        deepAI.setMoveTime(Duration.ofSeconds(30));
+        AtomicBoolean stop = new AtomicBoolean(true);
+        
+        long start = System.nanoTime();
+        deepAI.ponder(gameBoard, stop);
+        int move = deepAI.getBestMove(gameBoard, stop);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+        
+        // A stop requested while idle must not carry over to the next search
+        MinimaxAI mediumCopy = new MinimaxAI(2);
+        mediumCopy.stopSearch();
+        assertEquals(mediumAI.getBestMove(gameBoard), mediumCopy.getBestMove(gameBoard));
+    }
+    
+    @Test
+    @DisplayName("Should return a legal move from every engine stopped before it starts")
+    void testStoppedEnginesStillMove() {
+        for (char c : "342345231166".toCharArray()) gameBoard.makeMove(c - '0');
+        List<MinimaxAI> engines = List.of(new MinimaxAI(3, 8, 16, 4, MinimaxAI.ParallelMode.YOUNG_BROTHERS_WAIT),
+                                          new MinimaxAI(3, 8, 16, 4, MinimaxAI.ParallelMode.LAZY_SMP),
+                                          new MinimaxAI(MinimaxAI.SOLVER));
+        for (MinimaxAI engine : engines) {
+            try {
+                int move = engine.getBestMove(gameBoard, new AtomicBoolean(true));
+                assertTrue(move >= 0 && move < GameBoard.COLS && !gameBoard.isColumnFull(move));
+                assertTrue(engine.getLastSearchResult().principalVariation().stream().allMatch(col -> col >= 0));
+            } finally {
+                engine.shutdown();
+            }
+        }
+    }
+    
     // Helper method to setup board from array
     private void setupBoard(int[][] boardSetup) {
         for (int col = 0; col < GameBoard.COLS; col++) {
@@ -213,4 +421,125 @@ class MinimaxAITest {
             }
         }
     }
+    
+    @Test
+    @DisplayName("Should leave the caller's board untouched after searching")
+    void testSearchDoesNotMutateBoard() {
+        gameBoard.dropPiece(3);
+        gameBoard.switchPlayer();
+        gameBoard.dropPiece(2);
+        gameBoard.switchPlayer();
+        int[][] before = gameBoard.getBoard();
+        
+        hardAI.getBestMove(gameBoard);
+        
+        assertSame(before, gameBoard.getBoard());
+        assertEquals(1, gameBoard.getCurrentPlayer());
+        assertEquals(2, gameBoard.getBitBoard().getMoveCount());
+    }
+    
+    @Test
+    @DisplayName("Should search boards of other sizes and line lengths")
+    void testOtherBoardSize() {
+        GameBoard board = new GameBoard(10, 11, 5);
+        for (int col = 3; col <= 6; col++) {
+            board.makeMove(col);
+            board.makeMove(col);
+        }
+        int move = hardAI.getBestMove(board);
+        board.makeMove(move);
+        assertTrue(board.isLastMoveWin());
+        
+        // The same engine switches back to the standard board
+        move = hardAI.getBestMove(gameBoard);
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+    }
+    
+    @Test
+    @DisplayName("Solver difficulty should stay perfect after heuristic searches")
+    void testSolverIgnoresHeuristicEntries() {
+        Random random = new Random(3);
+        Solver reference = new Solver(16);
+        for (int game = 0; game < 8; game++) {
+            MinimaxAI solverAI = new MinimaxAI(MinimaxAI.SOLVER);
+            GameBoard board = new GameBoard();
+            while (board.getMoveCount() < 22) {
+                int col;
+                if (board.getMoveCount() < 10) {
+                    do {
+                        col = random.nextInt(board.getCols());
+                    } while (board.isColumnFull(col));
+                } else {
+                    // Heuristic below the solver threshold, exact above it, on the same engine
+                    col = solverAI.getBestMove(board);
+                }
+                if (board.getMoveCount() >= 12) {
+                    int best = reference.solve(board).score();
+                    GameBoard after = new GameBoard(board);
+                    after.makeMove(col);
+                    int achieved = after.isLastMoveWin() ? best : -reference.score(after);
+                    assertEquals(best, achieved, "game " + game + " after " + board.getMoveCount() + " moves");
+                }
+                board.makeMove(col);
+                if (board.isLastMoveWin()) break;
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Solver difficulty should hand a solve that overruns its time to the heuristic search")
+    void testSolverWithinMoveTime() {
+        // Eight stones, which takes the solver most of a second
+        for (char c : "34234523".toCharArray()) gameBoard.makeMove(c - '0');
+        MinimaxAI solverAI = new MinimaxAI(MinimaxAI.SOLVER);
+        solverAI.setMoveTime(Duration.ofSeconds(30));
+        assertEquals(2, solverAI.getBestMove(gameBoard));
+        
+        MinimaxAI hurried = new MinimaxAI(MinimaxAI.SOLVER);
+        hurried.setMoveTime(Duration.ofMillis(100));
+        int move = hurried.getBestMove(gameBoard);
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+        assertTrue(hurried.getLastSearchResult().principalVariation().stream().allMatch(col -> col >= 0));
+        
+        // Stopped before a single column is solved
+        for (char c : "1166".toCharArray()) gameBoard.makeMove(c - '0');
+        move = hurried.getBestMove(gameBoard, new AtomicBoolean(true));
+        assertTrue(move >= 0 && move < GameBoard.COLS);
+    }
+    
+    @Test
+    @DisplayName("Parallel search should play a move worth the score it reports")
+    void testParallelMoveMatchesScore() {
+        Random random = new Random(11);
+        int depth = 5;
+        ParallelSearch parallel = new ParallelSearch(new TranspositionTable(16), new SearchCounters(), 4);
+        try {
+            for (int position = 0; position < 120; position++) {
+                GameBoard board = new GameBoard();
+                int plies = 4 + random.nextInt(14);
+                for (int i = 0; i < plies && !board.isLastMoveWin(); i++) {
+                    int col;
+                    do {
+                        col = random.nextInt(board.getCols());
+                    } while (board.isColumnFull(col));
+                    board.makeMove(col);
+                }
+                if (board.isLastMoveWin()) continue;
+                
+                int move = parallel.searchRoot(board, depth, 0, new AtomicBoolean());
+                SearchWorker sequential = new SearchWorker(new TranspositionTable(1), MoveOrdering.ALL,
+                                                           new SearchCounters(), 0);
+                sequential.searchRoot(new GameBoard(board), depth);
+                
+                GameBoard child = new GameBoard(board);
+                child.makeMove(move);
+                int achieved = child.isLastMoveWin() ? parallel.getLastRootScore()
+                        : -new SearchWorker(new TranspositionTable(1), MoveOrdering.ALL, new SearchCounters(), 0)
+                                .searchNode(child, depth, -SearchWorker.INFINITY, SearchWorker.INFINITY);
+                assertEquals(sequential.getLastRootScore(), achieved, "position " + position);
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    @DisplayName("Should find every written position and miss the rest")
+    void testWriteAndLookup() throws IOException {
+        SortedMap<Long, OpeningBook.Entry> entries = new TreeMap<>();
+        GameBoard board = new GameBoard();
+        for (int col = 0; col < GameBoard.COLS; col++) {
+            board.makeMove(col);
+            // Alternating side to move also covers keys with the sign bit set
+            entries.put(board.getPositionKey(), new OpeningBook.Entry(col, col - 3));
+        }
+        Path file = tempDir.resolve("test.book");
+        OpeningBook.write(file, entries);
+        
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(entries.size(), book.size());
+        entries.forEach((key, entry) -> assertEquals(entry, book.lookup(key)));
+        assertNull(book.lookup(new GameBoard()));
+        assertNull(book.lookup(12345L));
+    }
+    
+    @Test
+    @DisplayName("Should reject files that are not books")
+    void testRejectsInvalidFile() throws IOException {
+        Path file = tempDir.resolve("bogus.book");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+    
+    @Test
+    @DisplayName("Should build entries from solver output")
+    void testGenerator() throws IOException {
+        GameBoard root = new GameBoard();
+        for (char c : "441032244210".toCharArray()) {
+            root.makeMove(c - '0');
+        }
+        
+        SortedMap<Long, OpeningBook.Entry> entries = new OpeningBookGenerator(new Solver(16)).generate(root, 2);
+        assertEquals(1 + GameBoard.COLS, entries.size());
+        
+        Path file = tempDir.resolve("generated.book");
+        OpeningBook.write(file, entries);
+        OpeningBook.Entry rootEntry = OpeningBook.open(file).lookup(root);
+        Solver.Solution solution = new Solver(16).solve(root);
+        assertEquals(solution.bestMove(), rootEntry.move());
+        assertEquals(solution.score(), rootEntry.score());
+    }
+    
+    @Test
+    @DisplayName("Should share entries between mirror images")
+    void testMirroredLookup() throws IOException {
+        GameBoard left = new GameBoard();
+        GameBoard right = new GameBoard();
+        left.makeMove(1);
+        right.makeMove(5);
+        assertEquals(left.getCanonicalKey(), right.getCanonicalKey());
+        
+        SortedMap<Long, OpeningBook.Entry> entries = new TreeMap<>();
+        boolean leftCanonical = left.getCanonicalKey() == left.getPositionKey();
+        entries.put(left.getCanonicalKey(), new OpeningBook.Entry(leftCanonical ? 2 : 4, 1));
+        Path file = tempDir.resolve("mirror.book");
+        OpeningBook.write(file, entries);
+        
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(new OpeningBook.Entry(2, 1), book.lookup(left));
+        assertEquals(new OpeningBook.Entry(4, 1), book.lookup(right));
+    }
+    
+    @Test
+    @DisplayName("Should play the book move instead of searching")
+    void testAIUsesBook() throws IOException {
+        GameBoard board = new GameBoard();
+        SortedMap<Long, OpeningBook.Entry> entries = new TreeMap<>();
+        entries.put(board.getPositionKey(), new OpeningBook.Entry(6, 0));
+        Path file = tempDir.resolve("ai.book");
+        OpeningBook.write(file, entries);
+        
+        MinimaxAI ai = new MinimaxAI(2);
+        assertEquals(3, ai.getBestMove(board));
+        ai.setOpeningBook(OpeningBook.open(file));
+        assertEquals(6, ai.getBestMove(board));
+        assertEquals(0, ai.getLastSearchCounters().getNodes());
+    }
+}
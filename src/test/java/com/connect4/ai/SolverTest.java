@@ -0,0 +1,114 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+    
+    private Solver solver;
+    private GameBoard gameBoard;
+    
+    @BeforeEach
+    void setUp() {
+        solver = new Solver(16);
+        gameBoard = new GameBoard();
+    }
+    
+    @Test
+    @DisplayName("Should take an immediate win and report it as one ply away")
+    void testImmediateWin() {
+        // Player 1 has three in column 0 and is to move
+        play("010101");
+        
+        Solver.Solution solution = solver.solve(gameBoard);
+        assertEquals(0, solution.bestMove());
+        assertEquals(Solver.Outcome.WIN, solution.outcome());
+        assertEquals((GameBoard.ROWS * GameBoard.COLS + 1 - 6) / 2, solution.score());
+        assertEquals(1, solution.pliesToEnd());
+    }
+    
+    @Test
+    @DisplayName("Should agree with exhaustive search on late positions")
+    void testMatchesExhaustiveSearch() {
+        Random random = new Random(7);
+        int checked = 0;
+        while (checked < 20) {
+            GameBoard board = randomPosition(random, 28);
+            if (board == null) continue;
+            
+            assertEquals(exhaustiveScore(board), solver.score(board), "position " + checked);
+            checked++;
+        }
+    }
+    
+    @Test
+    @DisplayName("Should solve mid-game positions in well under a second")
+    void testMidGamePositions() {
+        assertSolvedQuickly("441032244210", 4, 23);
+        assertSolvedQuickly("366033452145", 0, 30);
+    }
+    
+    private void assertSolvedQuickly(String moves, int expectedScore, int expectedPlies) {
+        gameBoard = new GameBoard();
+        play(moves);
+        
+        long start = System.nanoTime();
+        Solver.Solution solution = solver.solve(gameBoard);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertEquals(expectedScore, solution.score(), moves);
+        assertEquals(expectedPlies, solution.pliesToEnd(), moves);
+        assertTrue(elapsedMillis < 1000, moves + " took " + elapsedMillis + " ms");
+        
+        // The chosen move must keep the value
+        gameBoard.makeMove(solution.bestMove());
+        assertEquals(-expectedScore, solver.score(gameBoard), moves);
+    }
+    
+    private void play(String moves) {
+        for (char c : moves.toCharArray()) {
+            gameBoard.makeMove(c - '0');
+        }
+    }
+    
+    /**
+     * Random position with {@code stones} pieces where nobody has won yet, or null.
+     */
+    private GameBoard randomPosition(Random random, int stones) {
+        GameBoard board = new GameBoard();
+        for (int i = 0; i < stones; i++) {
+            int col = random.nextInt(GameBoard.COLS);
+            if (board.isColumnFull(col)) return null;
+            board.makeMove(col);
+            if (board.checkWin(3 - board.getCurrentPlayer())) return null;
+        }
+        return board;
+    }
+    
+    /**
+     * Plain negamax over the whole remaining tree, using the solver's scoring.
+     */
+    private int exhaustiveScore(GameBoard board) {
+        int moves = board.getBitBoard().getMoveCount();
+        if (moves == GameBoard.ROWS * GameBoard.COLS) return 0;
+        
+        int best = Integer.MIN_VALUE;
+        for (int col = 0; col < GameBoard.COLS; col++) {
+            if (board.isColumnFull(col)) continue;
+            
+            board.makeMove(col);
+            int score = board.checkWin(3 - board.getCurrentPlayer())
+                    ? (GameBoard.ROWS * GameBoard.COLS + 1 - moves) / 2
+                    : -exhaustiveScore(board);
+            board.unmakeMove(col);
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+}
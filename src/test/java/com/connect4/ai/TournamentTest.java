@@ -0,0 +1,113 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    
+    private static EngineConfig minimax(String name, int depth) {
+        return new EngineConfig(name, 1, EngineConfig.Kind.MINIMAX, depth, null, 1, 1, false);
+    }
+    
+    @Test
+    @DisplayName("Should generate distinct openings up to mirroring")
+    void testRandomOpenings() {
+        List<int[]> openings = Tournament.randomOpenings(30, 4, new Random(1));
+        assertEquals(30, openings.size());
+        Set<Long> keys = new HashSet<>();
+        for (int[] opening : openings) {
+            assertEquals(4, opening.length);
+            GameBoard board = new GameBoard();
+            for (int col : opening) board.makeMove(col);
+            assertTrue(keys.add(board.getCanonicalKey()));
+        }
+        
+        // One ply only has four openings once mirror images are merged
+        assertEquals(4, Tournament.randomOpenings(4, 1, new Random(2)).size());
+        assertThrows(IllegalArgumentException.class, () -> Tournament.randomOpenings(5, 1, new Random(2)));
+    }
+    
+    @Test
+    @DisplayName("Should play every pairing from both sides and rate the stronger engine higher")
+    void testRoundRobin() {
+        Tournament tournament = new Tournament(List.of(minimax("Shallow", 1), minimax("Deep", 5)),
+                                               null, 6, 2, 2, 42);
+        assertEquals(12, tournament.getGameCount());
+        
+        TournamentResult result = tournament.run();
+        assertEquals(12, result.getGames());
+        assertEquals(12, result.getWins(0, 1) + result.getDraws(0, 1) + result.getLosses(0, 1));
+        assertEquals(result.getWins(0, 1), result.getLosses(1, 0));
+        assertTrue(result.getScore(1) > result.getScore(0));
+        
+        List<TournamentResult.Rating> ratings = result.getRatings();
+        assertTrue(ratings.get(1).elo() > ratings.get(0).elo());
+        assertEquals(0, ratings.get(0).elo() + ratings.get(1).elo(), 1e-6);
+        assertTrue(result.getAverageThinkTime(1).toNanos() > 0);
+        assertTrue(result.format().contains("Shallow"));
+    }
+    
+    @Test
+    @DisplayName("Should play on the board shape it is given")
+    void testBoardShape() {
+        Tournament tournament = new Tournament(List.of(minimax("Shallow", 1), minimax("Deeper", 3)),
+                                               null, 4, 6, 2, 7, 7, 9, 5);
+        boolean wide = false;
+        for (int[] opening : tournament.getOpenings()) {
+            for (int col : opening) {
+                assertTrue(col >= 0 && col < 9);
+                wide |= col >= GameBoard.COLS;
+            }
+        }
+        assertTrue(wide);
+        
+        List<Tournament.GameRecord> games = new CopyOnWriteArrayList<>();
+        TournamentResult result = tournament.run(games::add);
+        assertEquals(8, result.getGames());
+        assertTrue(games.stream().allMatch(game -> game.plies() <= 7 * 9));
+        assertThrows(IllegalArgumentException.class,
+                     () -> Tournament.randomOpenings(1, 7 * 9, new GameBoard(7, 9, 5), new Random(1)));
+    }
+    
+    @Test
+    @DisplayName("Should enter an engine with the evaluation weights given after its name")
+    void testWeightedEntrant() {
+        EngineRegistry registry = EngineRegistry.withDefaults(null);
+        EngineConfig tuned = Tournament.entrant(registry, "Easy@4, 6,1");
+        assertEquals("Easy@4, 6,1", tuned.name());
+        assertEquals(new EvaluationWeights(4, 6, 1), tuned.weights());
+        assertEquals(registry.getConfig("Easy").depth(), tuned.depth());
+        assertEquals(EvaluationWeights.DEFAULT, Tournament.entrant(registry, "Easy").weights());
+        assertThrows(IllegalArgumentException.class, () -> Tournament.entrant(registry, "Easy@4,6"));
+        
+        // Entrants that differ only in their weights
+        Tournament tournament = new Tournament(List.of(Tournament.entrant(registry, "Easy"), tuned), null, 2, 2, 2, 3);
+        assertEquals(4, tournament.run().getGames());
+    }
+    
+    @Test
+    @DisplayName("Should keep ratings finite after a clean sweep")
+    void testRatings() {
+        TournamentResult result = new TournamentResult(List.of("A", "B", "C"));
+        for (int i = 0; i < 10; i++) {
+            result.record(new Tournament.GameRecord(0, 1, i, 0, 20, 0, 10, 0, 10));
+            result.record(new Tournament.GameRecord(1, 2, i, i % 2 == 0 ? 1 : -1, 20, 0, 10, 0, 10));
+        }
+        
+        List<TournamentResult.Rating> ratings = result.getRatings();
+        assertTrue(Double.isFinite(ratings.get(0).elo()));
+        assertTrue(ratings.get(0).elo() > ratings.get(1).elo());
+        assertTrue(ratings.get(1).elo() > ratings.get(2).elo());
+        assertTrue(Double.isFinite(ratings.get(1).margin()));
+        assertEquals(0, ratings.stream().mapToDouble(TournamentResult.Rating::elo).sum(), 1e-6);
+    }
+}
@@ -0,0 +1,107 @@
+package com.connect4.ai;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    
+    private TranspositionTable table;
+    
+    @BeforeEach
+    void setUp() {
+        table = new TranspositionTable(1);
+    }
+    
+    @Test
+    @DisplayName("Should size the table from the memory budget")
+    void testCapacityFromBudget() {
+        assertEquals(65536, table.getCapacity());
+        assertEquals(1 << 20, new TranspositionTable(16).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+    
+    @Test
+    @DisplayName("Should round-trip score, depth, bound and best move")
+    void testStoreAndProbe() {
+        table.store(12345L, 7, TranspositionTable.LOWER_BOUND, -1006, 4);
+        
+        long entry = table.probe(12345L);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(-1006, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.flag(entry));
+        assertEquals(4, TranspositionTable.bestMove(entry));
+        
+        assertEquals(TranspositionTable.MISS, table.probe(54321L));
+    }
+    
+    @Test
+    @DisplayName("Should keep the deeper entry within the same search")
+    void testReplaceByDepth() {
+        long first = 1L;
+        long second = first + findCollision(first);
+        
+        table.store(first, 6, TranspositionTable.EXACT, 10, 3);
+        table.store(second, 2, TranspositionTable.EXACT, 20, 1);
+        assertEquals(10, TranspositionTable.score(table.probe(first)));
+        assertEquals(TranspositionTable.MISS, table.probe(second));
+        
+        table.newSearch();
+        table.store(second, 2, TranspositionTable.EXACT, 20, 1);
+        assertEquals(20, TranspositionTable.score(table.probe(second)));
+        assertEquals(TranspositionTable.MISS, table.probe(first));
+    }
+    
+    @Test
+    @DisplayName("Should give transposed move orders the same position key")
+    void testTranspositionsShareKey() {
+        GameBoard a = new GameBoard();
+        GameBoard b = new GameBoard();
+        for (int col : new int[] {3, 2, 4}) a.makeMove(col);
+        for (int col : new int[] {4, 2, 3}) b.makeMove(col);
+        assertEquals(a.getPositionKey(), b.getPositionKey());
+        
+        GameBoard c = new GameBoard();
+        for (int col : new int[] {2, 3, 4}) c.makeMove(col);
+        assertNotEquals(a.getPositionKey(), c.getPositionKey());
+    }
+    
+    @Test
+    @DisplayName("Should give mirror images the same canonical key")
+    void testMirrorImagesShareKey() {
+        GameBoard a = new GameBoard();
+        GameBoard b = new GameBoard();
+        for (int col : new int[] {3, 0, 4, 1}) a.makeMove(col);
+        for (int col : new int[] {3, 6, 2, 5}) b.makeMove(col);
+        assertNotEquals(a.getPositionKey(), b.getPositionKey());
+        assertEquals(a.getCanonicalKey(), b.getCanonicalKey());
+        
+        GameBoard wide = new GameBoard(8, 9, 4);
+        GameBoard wideMirror = new GameBoard(8, 9, 4);
+        for (int col : new int[] {4, 0, 2, 2}) wide.makeMove(col);
+        for (int col : new int[] {4, 8, 6, 6}) wideMirror.makeMove(col);
+        assertNotEquals(wide.getPositionKey(), wideMirror.getPositionKey());
+        assertEquals(wide.getCanonicalKey(), wideMirror.getCanonicalKey());
+        
+        // A symmetric position is its own mirror image
+        GameBoard symmetric = new GameBoard();
+        for (int col : new int[] {3, 3, 2, 4}) symmetric.makeMove(col);
+        assertEquals(symmetric.getPositionKey(), symmetric.getCanonicalKey());
+    }
+    
+    private long findCollision(long key) {
+        // Search for a different key that maps to the same slot
+        TranspositionTable probe = new TranspositionTable(1);
+        probe.store(key, 0, TranspositionTable.EXACT, 0, 0);
+        for (long candidate = key + 1; ; candidate++) {
+            probe.store(candidate, 0, TranspositionTable.EXACT, 1, 0);
+            if (probe.probe(key) == TranspositionTable.MISS) {
+                return candidate - key;
+            }
+        }
+    }
+}
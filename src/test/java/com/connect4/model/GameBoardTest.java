@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameBoardTest {
@@ -233,4 +236,212 @@ class GameBoardTest {
         assertFalse(gameBoard.checkWin(1));
         assertFalse(gameBoard.checkWin(2));
     }
+    
+    @Test
+    @DisplayName("Should keep the int[][] view in sync with the bitboard")
+    void testBoardViewTracksDrops() {
+        int[][] before = gameBoard.getBoard();
+        assertEquals(0, before[5][3]);
+        
+        gameBoard.dropPiece(3);
+        gameBoard.switchPlayer();
+        gameBoard.dropPiece(3);
+        
+        int[][] after = gameBoard.getBoard();
+        assertEquals(1, after[5][3]);
+        assertEquals(2, after[4][3]);
+        assertSame(after, gameBoard.getBoard());
+    }
+    
+    @Test
+    @DisplayName("Should restore a position from an int[][] grid")
+    void testLoadBoard() {
+        int[][] grid = new int[GameBoard.ROWS][GameBoard.COLS];
+        grid[5][0] = 1;
+        grid[4][0] = 2;
+        grid[5][6] = 2;
+        
+        gameBoard.loadBoard(grid);
+        
+        assertEquals(1, gameBoard.getPiece(5, 0));
+        assertEquals(2, gameBoard.getPiece(4, 0));
+        assertEquals(2, gameBoard.getPiece(5, 6));
+        assertEquals(3, gameBoard.getBitBoard().getMoveCount());
+        assertEquals(2, gameBoard.getBitBoard().getHeight(0));
+        
+        gameBoard.dropPiece(0);
+        assertEquals(1, gameBoard.getPiece(3, 0));
+    }
+    
+    @Test
+    @DisplayName("Bitboard win detection should agree with a cell-by-cell scan")
+    void testBitboardWinMatchesScan() {
+        Random random = new Random(42);
+        for (int game = 0; game < 500; game++) {
+            gameBoard.reset();
+            while (!gameBoard.isBoardFull()) {
+                int col = random.nextInt(GameBoard.COLS);
+                if (!gameBoard.dropPiece(col)) continue;
+                
+                int[][] grid = gameBoard.getBoard();
+                assertEquals(scanForWin(grid, 1), gameBoard.checkWin(1));
+                assertEquals(scanForWin(grid, 2), gameBoard.checkWin(2));
+                if (gameBoard.checkWin(gameBoard.getCurrentPlayer())) break;
+                gameBoard.switchPlayer();
+            }
+        }
+    }
+    
+    private boolean scanForWin(int[][] grid, int player) {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int row = 0; row < GameBoard.ROWS; row++) {
+            for (int col = 0; col < GameBoard.COLS; col++) {
+                for (int[] d : directions) {
+                    int count = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int r = row + d[0] * i;
+                        int c = col + d[1] * i;
+                        if (r < 0 || r >= GameBoard.ROWS || c < 0 || c >= GameBoard.COLS || grid[r][c] != player) break;
+                        count++;
+                    }
+                    if (count == 4) return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    @Test
+    @DisplayName("Should undo moves exactly with makeMove/unmakeMove")
+    void testMakeUnmakeRoundTrip() {
+        gameBoard.dropPiece(3);
+        gameBoard.switchPlayer();
+        int[][] before = copyOf(gameBoard.getBoard());
+        
+        int[] sequence = {3, 2, 4, 3, 3, 6, 0};
+        for (int col : sequence) {
+            gameBoard.makeMove(col);
+        }
+        assertEquals(2, gameBoard.getPiece(4, 3));
+        assertEquals(1, gameBoard.getCurrentPlayer());
+        
+        for (int i = sequence.length - 1; i >= 0; i--) {
+            gameBoard.unmakeMove(sequence[i]);
+        }
+        
+        assertEquals(2, gameBoard.getCurrentPlayer());
+        assertArrayEquals(before, gameBoard.getBoard());
+        assertEquals(1, gameBoard.getBitBoard().getMoveCount());
+    }
+    
+    @Test
+    @DisplayName("Should track the last move and the line it completes")
+    void testLastMoveAndWinningPositions() {
+        assertEquals(-1, gameBoard.getLastMoveRow());
+        assertNull(gameBoard.getWinningPositions());
+        
+        int[] sequence = {0, 6, 1, 6, 2, 6};
+        for (int col : sequence) {
+            gameBoard.makeMove(col);
+        }
+        assertEquals(3, gameBoard.getLastMoveRow());
+        assertEquals(6, gameBoard.getLastMoveCol());
+        assertFalse(gameBoard.isLastMoveWin());
+        
+        gameBoard.makeMove(3);
+        assertEquals(5, gameBoard.getLastMoveRow());
+        assertTrue(gameBoard.isLastMoveWin());
+        List<int[]> positions = gameBoard.getWinningPositions();
+        assertEquals(4, positions.size());
+        for (int i = 0; i < 4; i++) {
+            assertArrayEquals(new int[] {5, i}, positions.get(i));
+        }
+        
+        gameBoard.unmakeMove(3);
+        assertEquals(6, gameBoard.getLastMoveCol());
+        assertNull(gameBoard.getWinningPositions());
+    }
+    
+    @Test
+    @DisplayName("Should agree with the full win check after every move")
+    void testLastMoveWinMatchesFullCheck() {
+        Random random = new Random(11);
+        for (int game = 0; game < 300; game++) {
+            gameBoard.reset();
+            while (!gameBoard.isBoardFull()) {
+                int col = random.nextInt(GameBoard.COLS);
+                if (gameBoard.isColumnFull(col)) continue;
+                
+                gameBoard.makeMove(col);
+                boolean won = gameBoard.checkWin(3 - gameBoard.getCurrentPlayer());
+                assertEquals(won, gameBoard.isLastMoveWin());
+                if (won) break;
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should find wins on a large board")
+    void testLargeBoardWins() {
+        GameBoard board = new GameBoard(10, 11, 4);
+        assertFalse(board.isStandardSize());
+        assertEquals(10, board.getBoard().length);
+        assertEquals(11, board.getBoard()[0].length);
+        
+        // Rising diagonal for player 1 from the bottom of column 7
+        int[] moves = {7, 8, 8, 9, 10, 9, 9, 10, 10, 0, 10};
+        for (int col : moves) {
+            assertFalse(board.isLastMoveWin());
+            board.makeMove(col);
+        }
+        assertTrue(board.isLastMoveWin());
+        assertTrue(board.checkWin(1));
+        assertFalse(board.checkWin(2));
+        assertEquals(4, board.getWinningPositions().size());
+        assertThrows(IllegalStateException.class, board::getBitBoard);
+    }
+    
+    @Test
+    @DisplayName("Should need the configured number in a row")
+    void testConnectFive() {
+        GameBoard board = new GameBoard(6, 7, 5);
+        for (int col = 0; col < 4; col++) {
+            board.makeMove(col);
+            board.makeMove(col);
+        }
+        assertFalse(board.checkWin(1));
+        board.makeMove(4);
+        assertTrue(board.isLastMoveWin());
+        assertEquals(5, board.getWinningPositions().size());
+    }
+    
+    @Test
+    @DisplayName("Should copy and key boards that span several words")
+    void testWideBoardCopy() {
+        GameBoard board = new GameBoard(8, 9, 4);
+        Random random = new Random(5);
+        for (int i = 0; i < 40; i++) {
+            int col = random.nextInt(9);
+            if (!board.isColumnFull(col)) board.makeMove(col);
+        }
+        GameBoard copy = new GameBoard(board);
+        assertEquals(board.getPositionKey(), copy.getPositionKey());
+        assertArrayEquals(board.getBoard(), copy.getBoard());
+        
+        GameBoard loaded = new GameBoard(8, 9, 4);
+        loaded.loadBoard(board.getBoard());
+        assertEquals(board.getMoveCount(), loaded.getMoveCount());
+        
+        copy.unmakeMove(copy.getLastMoveCol());
+        assertNotEquals(board.getPositionKey(), copy.getPositionKey());
+        assertThrows(IllegalArgumentException.class, () -> gameBoard.loadBoard(board.getBoard()));
+    }
+    
+    private int[][] copyOf(int[][] grid) {
+        int[][] copy = new int[grid.length][];
+        for (int row = 0; row < grid.length; row++) {
+            copy[row] = grid[row].clone();
+        }
+        return copy;
+    }
 }
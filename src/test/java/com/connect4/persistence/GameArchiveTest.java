@@ -0,0 +1,103 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+    
+    private static int[] randomGame(Random random, int length) {
+        int[] moves = new int[length];
+        GameBoard board = new GameBoard();
+        for (int i = 0; i < length; i++) {
+            int col;
+            do {
+                col = random.nextInt(board.getCols());
+            } while (board.isColumnFull(col));
+            board.makeMove(col);
+            moves[i] = col;
+        }
+        return moves;
+    }
+    
+    @Test
+    @DisplayName("Should read back games across segments by id and in order")
+    void testAppendAndRead() throws IOException {
+        Path file = Files.createTempDirectory("archive").resolve("games" + GameArchive.EXTENSION);
+        Random random = new Random(7);
+        int[][] games = new int[200][];
+        // Small segments so the games span many of them
+        try (GameArchive archive = GameArchive.open(file, GameBoard.ROWS, GameBoard.COLS, GameBoard.CONNECT, 256)) {
+            for (int i = 0; i < games.length; i++) {
+                games[i] = randomGame(random, random.nextInt(GameBoard.ROWS * GameBoard.COLS + 1));
+                assertEquals(i, archive.append(games[i], i % 3));
+            }
+            assertArrayEquals(games[57], archive.get(57).moves());
+            assertEquals(57 % 3, archive.get(57).winner());
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.get(games.length));
+        }
+        
+        try (GameArchive archive = GameArchive.open(file)) {
+            assertEquals(games.length, archive.size());
+            long id = 0;
+            for (GameArchive.Game game : archive) {
+                assertEquals(id, game.id());
+                assertArrayEquals(games[(int) id], game.moves());
+                id++;
+            }
+            assertEquals(games.length, id);
+            int totalMoves = 0;
+            for (int[] game : games) totalMoves += game.length;
+            assertEquals(totalMoves, archive.stream().mapToInt(game -> game.moves().length).sum());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should score games appended from a board")
+    void testAppendBoard() throws IOException {
+        Path file = Files.createTempDirectory("archive").resolve("games" + GameArchive.EXTENSION);
+        try (GameArchive archive = GameArchive.open(file)) {
+            GameBoard board = new GameBoard();
+            for (int col : new int[] {3, 4, 3, 4, 3, 4, 3}) {
+                board.makeMove(col);
+            }
+            long won = archive.append(board);
+            board.unmakeMove(3);
+            long unfinished = archive.append(board);
+            
+            assertEquals(1, archive.get(won).winner());
+            assertEquals(GameArchive.UNFINISHED, archive.get(unfinished).winner());
+            assertTrue(archive.replay(won).isLastMoveWin());
+        }
+        assertThrows(IOException.class, () -> GameArchive.open(file, 6, 9, 5));
+    }
+    
+    @Test
+    @DisplayName("Should drop a game whose record was cut off")
+    void testRecoversTornAppend() throws IOException {
+        Path file = Files.createTempDirectory("archive").resolve("games" + GameArchive.EXTENSION);
+        try (GameArchive archive = GameArchive.open(file)) {
+            archive.append(new int[] {3, 3, 2}, GameArchive.UNFINISHED);
+            archive.append(new int[] {0, 1, 2, 3, 4, 5, 6}, GameArchive.UNFINISHED);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        
+        try (GameArchive archive = GameArchive.open(file)) {
+            assertEquals(1, archive.size());
+            assertEquals(1, archive.append(new int[] {6}, GameArchive.DRAW));
+            assertArrayEquals(new int[] {3, 3, 2}, archive.get(0).moves());
+            assertArrayEquals(new int[] {6}, archive.get(1).moves());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.GameState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateCodecTest {
+    
+    private static GameState roundTrip(GameState state) throws IOException {
+        return GameStateCodec.decode(GameStateCodec.encode(state));
+    }
+    
+    @Test
+    @DisplayName("Should restore every field of a standard game")
+    void testRoundTrip() throws IOException {
+        GameBoard board = new GameBoard();
+        for (char c : "3342215".toCharArray()) {
+            board.makeMove(c - '0');
+        }
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 17, 13, 45, 12, 345_000_000);
+        GameState state = new GameState(board.getBoard(), 2, 3, 1, timestamp, "Human vs AI", 4);
+        
+        ByteBuffer encoded = GameStateCodec.encode(state);
+        assertTrue(encoded.remaining() < 60);
+        
+        GameState decoded = GameStateCodec.decode(encoded);
+        assertArrayEquals(state.getBoard(), decoded.getBoard());
+        assertEquals(2, decoded.getCurrentPlayer());
+        assertEquals(3, decoded.getPlayer1Score());
+        assertEquals(1, decoded.getPlayer2Score());
+        assertEquals(timestamp, decoded.getTimestamp());
+        assertEquals("Human vs AI", decoded.getGameMode());
+        assertEquals(4, decoded.getDifficulty());
+    }
+    
+    @Test
+    @DisplayName("Should encode boards that need several words and missing fields")
+    void testLargeBoardAndNulls() throws IOException {
+        GameBoard board = new GameBoard(10, 11, 4);
+        for (int i = 0; i < 60; i++) {
+            board.makeMove((i * 7) % 11);
+        }
+        GameState decoded = roundTrip(new GameState(board.getBoard(), 1, 0, 0, null, null, 0));
+        assertArrayEquals(board.getBoard(), decoded.getBoard());
+        assertNull(decoded.getTimestamp());
+        assertNull(decoded.getGameMode());
+    }
+    
+    @Test
+    @DisplayName("Should reject bytes that are not a complete save")
+    void testRejectsInvalidInput() {
+        GameState state = new GameState(new GameBoard().getBoard(), 1, 0, 0, LocalDateTime.now(), "Human vs Human", 2);
+        ByteBuffer encoded = GameStateCodec.encode(state);
+        
+        ByteBuffer truncated = encoded.duplicate().limit(encoded.limit() - 3);
+        assertThrows(IOException.class, () -> GameStateCodec.decode(truncated));
+        
+        ByteBuffer newer = encoded.duplicate();
+        newer.put(4, (byte) (GameStateCodec.VERSION + 1));
+        assertThrows(IOException.class, () -> GameStateCodec.decode(newer));
+        
+        assertThrows(IOException.class, () -> GameStateCodec.decode(ByteBuffer.wrap("{\"board\":[]}".getBytes())));
+    }
+}
@@ -0,0 +1,122 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.GameState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+    
+    private static Path tempJournal() throws IOException {
+        Path file = Files.createTempFile("journal", MoveJournal.EXTENSION);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+    
+    @Test
+    @DisplayName("Should replay a game recorded one move at a time")
+    void testReplay() throws IOException {
+        Path file = tempJournal();
+        GameBoard board = new GameBoard();
+        String moves = "33422156600112453";
+        try (MoveJournal journal = MoveJournal.create(file, board, 0, 0, "Human vs AI", 3, 4)) {
+            for (char c : moves.toCharArray()) {
+                board.makeMove(c - '0');
+                journal.record(board, 0, 0, "Human vs AI", 3);
+            }
+            assertEquals(moves.length(), journal.getMoveCount());
+        }
+        // One checkpoint at the start and one after CHECKPOINT_INTERVAL moves
+        assertTrue(Files.size(file) < 200);
+        
+        GameState state = MoveJournal.replay(file);
+        assertTrue(Arrays.deepEquals(board.getBoard(), state.getBoard()));
+        assertEquals(board.getCurrentPlayer(), state.getCurrentPlayer());
+        assertEquals("Human vs AI", state.getGameMode());
+        assertEquals(3, state.getDifficulty());
+    }
+    
+    @Test
+    @DisplayName("Should checkpoint changes that are not moves")
+    void testCheckpoints() throws IOException {
+        Path file = tempJournal();
+        GameBoard board = new GameBoard(6, 9, 5);
+        try (MoveJournal journal = MoveJournal.create(file, board, 0, 0, null, 0, 1)) {
+            board.makeMove(4);
+            board.makeMove(4);
+            journal.record(board, 0, 0, null, 0);
+            
+            board.setCurrentPlayer(2);
+            journal.record(board, 1, 0, null, 0);
+        }
+        
+        GameState state = MoveJournal.replay(file);
+        assertTrue(Arrays.deepEquals(board.getBoard(), state.getBoard()));
+        assertEquals(2, state.getCurrentPlayer());
+        assertEquals(1, state.getPlayer1Score());
+        assertEquals(9, state.getBoard()[0].length);
+    }
+    
+    @Test
+    @DisplayName("Should ignore a torn tail and reject corrupt moves")
+    void testDamagedJournal() throws IOException {
+        Path file = tempJournal();
+        GameBoard board = new GameBoard();
+        try (MoveJournal journal = MoveJournal.create(file, board, 0, 0, "Human vs Human", 2, 1)) {
+            board.makeMove(3);
+            journal.record(board, 0, 0, "Human vs Human", 2);
+            journal.record(board, 2, 0, "Human vs Human", 2);
+        }
+        
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        GameState state = MoveJournal.replay(file);
+        assertEquals(0, state.getPlayer1Score());
+        assertEquals(1, state.getBoard()[5][3]);
+        
+        byte[] corrupt = Arrays.copyOf(bytes, bytes.length + 1);
+        corrupt[bytes.length] = 42;
+        Files.write(file, corrupt);
+        assertThrows(IOException.class, () -> MoveJournal.replay(file));
+        
+        Files.write(file, "not a journal".getBytes());
+        assertThrows(IOException.class, () -> MoveJournal.replay(file));
+    }
+    
+    @Test
+    @DisplayName("Should checkpoint a different game instead of appending its moves")
+    void testDifferentGameSamePieceCount() throws IOException {
+        Path file = tempJournal();
+        GameBoard board = new GameBoard();
+        try (MoveJournal journal = MoveJournal.create(file, board, 0, 0, null, 0, 1)) {
+            for (int i = 0; i < 6; i++) {
+                board.makeMove(0);
+                journal.record(board, 0, 0, null, 0);
+            }
+            
+            // Column 0 is full in the journaled game but not in this one
+            GameBoard other = new GameBoard();
+            for (char c : "123456".toCharArray()) {
+                other.makeMove(c - '0');
+            }
+            other.makeMove(0);
+            journal.record(other, 0, 0, null, 0);
+            assertTrue(Arrays.deepEquals(other.getBoard(), MoveJournal.replay(file).getBoard()));
+            
+            // A loaded board has no history to compare, only its position
+            GameBoard loaded = new GameBoard();
+            loaded.loadBoard(new GameBoard(board).getBoard());
+            loaded.setCurrentPlayer(board.getCurrentPlayer());
+            loaded.makeMove(1);
+            journal.record(loaded, 0, 0, null, 0);
+            assertTrue(Arrays.deepEquals(loaded.getBoard(), MoveJournal.replay(file).getBoard()));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.connect4.persistence;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.GameState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveCatalogTest {
+    
+    private static Path writeSave(Path directory, String name, int moves, LocalDateTime timestamp) throws IOException {
+        GameBoard board = new GameBoard();
+        for (int i = 0; i < moves; i++) {
+            board.makeMove(i % board.getCols());
+        }
+        GameState state = new GameState(board.getBoard(), board.getCurrentPlayer(), 0, 0, timestamp, "Human vs AI", 2);
+        ByteBuffer encoded = GameStateCodec.encode(state);
+        Path file = directory.resolve(name + ".c4s");
+        Files.write(file, encoded.array());
+        return file;
+    }
+    
+    private static SaveCatalog catalog(Path directory, AtomicInteger described) {
+        return new SaveCatalog(directory, file -> {
+            String name = file.getFileName().toString();
+            if (!name.endsWith(".c4s")) return null;
+            described.incrementAndGet();
+            GameState state = GameStateCodec.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+            return SaveCatalog.Entry.of(name.substring(0, name.length() - 4), state, file);
+        });
+    }
+    
+    @Test
+    @DisplayName("Should build from the directory once and then list without opening saves")
+    void testListing() throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+        LocalDateTime early = LocalDateTime.of(2024, 1, 1, 12, 0);
+        writeSave(directory, "first", 5, early);
+        writeSave(directory, "second", 9, early.plusDays(1));
+        Files.writeString(directory.resolve("notes.txt"), "not a save");
+        
+        AtomicInteger described = new AtomicInteger();
+        SaveCatalog catalog = catalog(directory, described);
+        List<SaveCatalog.Entry> entries = catalog.list();
+        assertEquals(2, described.get());
+        assertEquals(List.of("first", "second"), entries.stream().map(SaveCatalog.Entry::name).toList());
+        assertEquals(5, entries.get(0).moveCount());
+        assertEquals(early, entries.get(0).timestamp());
+        assertEquals("Human vs AI", entries.get(0).gameMode());
+        assertEquals("first.c4s", entries.get(0).location());
+        assertEquals(Files.size(directory.resolve("first.c4s")), entries.get(0).size());
+        
+        Path third = writeSave(directory, "third", 1, early.plusDays(2));
+        GameState state = GameStateCodec.decode(ByteBuffer.wrap(Files.readAllBytes(third)));
+        catalog.put(SaveCatalog.Entry.of("third", state, third));
+        catalog.remove("first");
+        
+        List<SaveCatalog.Entry> newest = catalog(directory, described).listNewestFirst();
+        assertEquals(List.of("third", "second"), newest.stream().map(SaveCatalog.Entry::name).toList());
+        assertEquals(2, described.get());
+    }
+    
+    @Test
+    @DisplayName("Should rebuild a catalog that fails its checksum")
+    void testCorruptCatalog() throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+        writeSave(directory, "only", 3, null);
+        AtomicInteger described = new AtomicInteger();
+        SaveCatalog catalog = catalog(directory, described);
+        assertEquals(1, catalog.list().size());
+        assertNotNull(catalog.list().get(0).timestamp());
+        
+        Path file = directory.resolve(SaveCatalog.FILE_NAME);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        writeSave(directory, "another", 2, LocalDateTime.now());
+        
+        assertEquals(List.of("another", "only"), catalog.list().stream().map(SaveCatalog.Entry::name).toList());
+        assertEquals(3, described.get());
+        assertFalse(Files.exists(directory.resolve(SaveCatalog.FILE_NAME + ".tmp")));
+    }
+    
+    @Test
+    @DisplayName("Should keep entries and files together when a change fails or is cut short")
+    void testInterruptedChanges() throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+        LocalDateTime early = LocalDateTime.of(2024, 1, 1, 12, 0);
+        writeSave(directory, "kept", 4, early);
+        AtomicInteger described = new AtomicInteger();
+        SaveCatalog catalog = catalog(directory, described);
+        assertEquals(1, catalog.list().size());
+        SaveCatalog.Entry kept = catalog.list().get(0);
+        
+        GameState state = new GameState(new GameBoard().getBoard(), 1, 0, 0, early, "Human vs AI", 2);
+        catalog.put(SaveCatalog.Entry.of("added", state, "added.c4s", 10),
+                    () -> writeSave(directory, "added", 0, early));
+        assertEquals(List.of("added", "kept"), catalog.list().stream().map(SaveCatalog.Entry::name).toList());
+        
+        // A failed change takes its entry back, restoring any it replaced
+        assertThrows(IOException.class, () -> catalog.put(SaveCatalog.Entry.of("lost", state, "lost.c4s", 10), () -> {
+            throw new IOException("disk full");
+        }));
+        assertThrows(IOException.class, () -> catalog.put(SaveCatalog.Entry.of("kept", state, "kept.c4s", 10), () -> {
+            throw new IOException("disk full");
+        }));
+        assertThrows(IOException.class, () -> catalog.remove("kept", () -> {
+            throw new IOException("read-only");
+        }));
+        assertEquals(List.of("added", "kept"), catalog.list().stream().map(SaveCatalog.Entry::name).toList());
+        assertEquals(kept, catalog.list().get(1));
+        
+        // A crash after deleting a file but before updating the catalog
+        Files.delete(directory.resolve("added.c4s"));
+        List<SaveCatalog.Entry> remaining = catalog(directory, described).list();
+        assertEquals(List.of("kept"), remaining.stream().map(SaveCatalog.Entry::name).toList());
+        assertEquals(1, described.get());
+    }
+}
@@ -0,0 +1,195 @@
+package com.connect4.service;
+
+import com.connect4.model.GameBoard;
+import com.connect4.model.GameState;
+import com.connect4.persistence.SaveCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateServiceTest {
+    
+    private static GameBoard board(String moves) {
+        GameBoard board = new GameBoard();
+        for (char c : moves.toCharArray()) {
+            board.makeMove(c - '0');
+        }
+        return board;
+    }
+    
+    private static List<String> autoSaves(GameStateService service) {
+        return service.getSavedGames().stream().filter(name -> name.startsWith("autosave_")).sorted().toList();
+    }
+    
+    private static void awaitQueueDepth(GameStateService service, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getQueueDepth() != depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "Queue never reached depth " + depth);
+            Thread.sleep(1);
+        }
+    }
+    
+    @Test
+    @DisplayName("Should collapse queued autosaves of one game and journal each game separately")
+    void testQueueing() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        GameBoard first = board("3344");
+        GameBoard second = board("0123");
+        
+        // The writer needs the service's lock, so holding it keeps later autosaves queued
+        synchronized (service) {
+            service.autoSave(board("3"), 0, 0, "Human vs AI", 2);
+            awaitQueueDepth(service, 0);
+            service.autoSave(board("33"), 0, 0, "Human vs AI", 2);
+            service.autoSave(board("334"), 0, 0, "Human vs AI", 2);
+            service.autoSave(first, 0, 0, "Human vs AI", 2);
+            assertEquals(1, service.getQueueDepth());
+            
+            // Same piece count, but a new game
+            service.startNewGame();
+            service.autoSave(second, 1, 0, "Human vs AI", 2);
+            assertEquals(2, service.getQueueDepth());
+        }
+        service.flush();
+        assertEquals(0, service.getQueueDepth());
+        
+        List<String> names = autoSaves(service);
+        assertEquals(2, names.size());
+        assertTrue(Arrays.deepEquals(first.getBoard(), service.loadGame(names.get(0)).getBoard()));
+        GameState latest = service.loadGame(names.get(1));
+        assertTrue(Arrays.deepEquals(second.getBoard(), latest.getBoard()));
+        assertEquals(1, latest.getPlayer1Score());
+        
+        // The journal being written is never cleaned up
+        service.cleanupOldAutoSaves(0);
+        assertEquals(List.of(names.get(1)), autoSaves(service));
+        service.close();
+    }
+    
+    @Test
+    @DisplayName("Should write every queued autosave on close")
+    void testCloseDrains() throws IOException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        GameBoard board = new GameBoard();
+        for (char c : "33422156600112453".toCharArray()) {
+            board.makeMove(c - '0');
+            service.autoSave(board, 0, 0, "Human vs Human", 1);
+        }
+        service.close();
+        service.close();
+        assertEquals(0, service.getQueueDepth());
+        assertThrows(IllegalStateException.class, () -> service.autoSave(board, 0, 0, "Human vs Human", 1));
+        
+        GameStateService reopened = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        List<String> names = autoSaves(reopened);
+        assertEquals(1, names.size());
+        assertTrue(Arrays.deepEquals(board.getBoard(), reopened.loadGame(names.get(0)).getBoard()));
+        reopened.close();
+    }
+    
+    @Test
+    @DisplayName("Should list only saves whose files exist")
+    void testCatalogFollowsFiles() throws IOException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        service.saveGame(board("334"), 0, 0, "Human vs AI", 2, "first");
+        service.saveGame(board("01"), 1, 1, "Human vs AI", 2, "second");
+        assertEquals(List.of("first", "second"), service.getSavedGames());
+        
+        // As if the service crashed between deleting the file and updating the catalog
+        Files.delete(directory.resolve("second.c4s"));
+        assertEquals(List.of("first"), service.getSavedGames());
+        
+        service.deleteSave("first");
+        assertEquals(List.of(), service.getSavedGames());
+        assertFalse(Files.exists(directory.resolve("first.c4s")));
+        service.close();
+    }
+    
+    @Test
+    @DisplayName("Should restore a save made on a larger board at its own size")
+    void testLargerBoardSave() throws IOException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        GameBoard large = new GameBoard(8, 9, GameBoard.CONNECT);
+        for (char c : "878".toCharArray()) large.makeMove(c - '0');
+        service.saveGame(large, 0, 0, "Human vs AI", 2, "large");
+        
+        GameBoard loaded = service.loadGame("large").toGameBoard();
+        assertEquals(8, loaded.getRows());
+        assertEquals(9, loaded.getCols());
+        assertEquals(large.getCurrentPlayer(), loaded.getCurrentPlayer());
+        assertTrue(Arrays.deepEquals(large.getBoard(), loaded.getBoard()));
+        // A fixed standard board cannot take it
+        assertThrows(IllegalArgumentException.class, () -> new GameBoard().loadBoard(large.getBoard()));
+        service.close();
+    }
+    
+    @Test
+    @DisplayName("Should load, list, replace and delete JSON saves from before the binary format")
+    void testLegacyJsonSaves() throws IOException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService legacy = new GameStateService(directory, GameStateService.SaveFormat.JSON);
+        legacy.saveGame(board("3342"), 2, 1, "Human vs AI", 3, "kept");
+        legacy.saveGame(board("00"), 0, 0, "Human vs Human", 1, "old");
+        legacy.close();
+        // Those directories had no catalog either
+        Files.delete(directory.resolve(SaveCatalog.FILE_NAME));
+        
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        assertEquals(List.of("kept", "old"), service.getSavedGames());
+        GameState loaded = service.loadGame("kept");
+        assertTrue(Arrays.deepEquals(board("3342").getBoard(), loaded.getBoard()));
+        assertEquals(2, loaded.getPlayer1Score());
+        assertEquals(3, loaded.getDifficulty());
+        
+        service.deleteSave("old");
+        assertEquals(List.of("kept"), service.getSavedGames());
+        assertFalse(Files.exists(directory.resolve("old.json")));
+        
+        // As if the service crashed after recording a binary save over it, before writing it
+        new SaveCatalog(directory, file -> null).put(SaveCatalog.Entry.of("kept", loaded, "kept.c4s", 10));
+        assertEquals(List.of("kept"), service.getSavedGames());
+        assertEquals(2, service.loadGame("kept").getPlayer1Score());
+        
+        // Saving over a JSON save replaces it with a binary one
+        service.saveGame(board("33421"), 2, 2, "Human vs AI", 3, "kept");
+        assertFalse(Files.exists(directory.resolve("kept.json")));
+        assertTrue(Files.exists(directory.resolve("kept.c4s")));
+        assertEquals(List.of("kept"), service.getSavedGames());
+        assertTrue(Arrays.deepEquals(board("33421").getBoard(), service.loadGame("kept").getBoard()));
+        service.close();
+    }
+    
+    @Test
+    @DisplayName("Should export a save as JSON and import it in the directory's format")
+    void testExportImport() throws IOException {
+        Path directory = Files.createTempDirectory("saves");
+        GameStateService service = new GameStateService(directory, GameStateService.SaveFormat.BINARY);
+        service.saveGame(board("3322"), 1, 0, "AI vs AI", 2, "game");
+        
+        Path exported = Files.createTempFile("exported", ".json");
+        exported.toFile().deleteOnExit();
+        service.exportJson("game", exported);
+        assertFalse(Files.exists(exported.resolveSibling(exported.getFileName() + ".tmp")));
+        service.importJson(exported, "copy");
+        
+        assertEquals(List.of("copy", "game"), service.getSavedGames());
+        assertTrue(Files.exists(directory.resolve("copy.c4s")));
+        assertFalse(Files.exists(directory.resolve("copy.json")));
+        GameState copy = service.loadGame("copy");
+        assertTrue(Arrays.deepEquals(board("3322").getBoard(), copy.getBoard()));
+        assertEquals("AI vs AI", copy.getGameMode());
+        assertEquals(1, copy.getPlayer1Score());
+        service.close();
+    }
+}